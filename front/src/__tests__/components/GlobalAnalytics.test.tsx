@@ -4,6 +4,10 @@ import { mockFeature, mockScenario, createMockStep } from '../testUtils';
 import type { CucumberReport } from '../../types/cucumber';
 
 describe('GlobalAnalytics', () => {
+  afterEach(() => {
+    window.CUCUMBER_REPORT_EXTRAS = null;
+  });
+
   it('renders analytics dashboard with empty data', () => {
     render(<GlobalAnalytics reportData={[]} />);
     
@@ -260,4 +264,76 @@ describe('GlobalAnalytics', () => {
     // Should render without errors
     expect(screen.getByText('Global Test Execution Analytics')).toBeInTheDocument();
   });
+
+  it('lists failure clusters with their representative trace', () => {
+    window.CUCUMBER_REPORT_EXTRAS = {
+      failureClusters: [
+        {
+          signature: '8499a13f2e72',
+          count: 37,
+          message: 'java.lang.AssertionError: Order 1001 not found',
+          representative: 'java.lang.AssertionError: Order 1001 not found\n\tat com.example.Steps.check(Steps.java:42)',
+          uri: 'features/orders.feature',
+          line: 3,
+          scenario: 'Find an order'
+        }
+      ]
+    };
+
+    render(<GlobalAnalytics reportData={[]} />);
+
+    const clusters = screen.getByTestId('failure-clusters');
+    expect(clusters).toHaveTextContent('37×');
+    expect(clusters).toHaveTextContent('8499a13f2e72');
+    expect(clusters).toHaveTextContent('features/orders.feature:3');
+    expect(clusters).toHaveTextContent('at com.example.Steps.check(Steps.java:42)');
+  });
+
+  it('shows the comparison with the baseline run', () => {
+    const change = {
+      id: 'orders;find-an-order',
+      uri: 'features/orders.feature',
+      line: 3,
+      name: 'Find an order',
+      baseline_status: 'passed',
+      status: 'failed',
+      baseline_duration: 1000000000,
+      duration: 2000000000
+    };
+    window.CUCUMBER_REPORT_EXTRAS = {
+      baseline: { name: 'baseline.json', matched: 120, added: 2, removed: 1, new_failures: [change], fixed: [], slower: [] }
+    };
+
+    render(<GlobalAnalytics reportData={[]} />);
+
+    const comparison = screen.getByTestId('baseline-comparison');
+    expect(comparison).toHaveTextContent('Comparison with baseline.json');
+    expect(comparison).toHaveTextContent('120 scenarios in both runs, 2 new, 1 no longer run');
+    expect(comparison).toHaveTextContent('New failures (1)');
+    expect(comparison).toHaveTextContent('passed → failed');
+    expect(comparison).toHaveTextContent('Fixed (0)');
+  });
+
+  it('summarizes step durations without keeping every duration', () => {
+    const reportData: CucumberReport = [
+      mockFeature({
+        elements: [
+          mockScenario({
+            steps: [
+              createMockStep({ result: { status: 'passed', duration: 1000000 } }),
+              createMockStep({ result: { status: 'passed', duration: 3000000 } }),
+              createMockStep({ result: { status: 'skipped', duration: 0 } })
+            ]
+          })
+        ]
+      })
+    ];
+
+    render(<GlobalAnalytics reportData={reportData} />);
+
+    expect(screen.getByText('Fastest Step:').nextSibling).toHaveTextContent('1ms');
+    expect(screen.getByText('Slowest Step:').nextSibling).toHaveTextContent('3ms');
+    expect(screen.getByText('Average Step Duration:').nextSibling).toHaveTextContent('2ms');
+    expect(screen.getByTestId('duration-histogram').querySelector('canvas')).toBeInTheDocument();
+  });
 });
@@ -5,6 +5,10 @@ import { mockScenario, mockFeature, createMockReportData } from '../testUtils';
 describe('ScenarioView', () => {
   const mockReportData = createMockReportData();
 
+  afterEach(() => {
+    window.CUCUMBER_REPORT_EXTRAS = null;
+  });
+
   it('renders invalid scenario message when passed feature data', () => {
     const feature = mockFeature();
     render(<ScenarioView scenario={feature} reportData={mockReportData} />);
@@ -264,4 +268,39 @@ describe('ScenarioView', () => {
     expect(screen.getAllByText('a simple step')).toHaveLength(2);
     expect(screen.queryByRole('table')).not.toBeInTheDocument();
   });
+
+  it('renders the JVM profile recorded for the scenario', () => {
+    const scenario = mockScenario({ line: 5 });
+    const feature = mockFeature({ uri: 'features/login.feature', elements: [scenario] });
+    window.CUCUMBER_REPORT_EXTRAS = {
+      profiles: {
+        'features/login.feature:5': {
+          thread: 'worker-3',
+          duration: 42000000,
+          gc_count: 2,
+          gc_time: 3000000,
+          allocated_bytes: 2 * 1024 * 1024
+        }
+      }
+    };
+
+    render(<ScenarioView scenario={scenario} reportData={[feature]} />);
+
+    const profile = screen.getByTestId('scenario-profile');
+    expect(profile).toHaveTextContent('worker-3');
+    expect(profile).toHaveTextContent('3ms (2 collections)');
+    expect(profile).toHaveTextContent('2.0MB');
+  });
+
+  it('only looks for the owning feature of a profile when profiles were recorded', () => {
+    const scenario = mockScenario();
+    const reportData = [mockFeature({ elements: [scenario] })];
+    const find = jest.spyOn(reportData, 'find');
+
+    render(<ScenarioView scenario={scenario} reportData={reportData} />);
+
+    // Once, for the feature header
+    expect(find).toHaveBeenCalledTimes(1);
+    expect(screen.queryByTestId('scenario-profile')).not.toBeInTheDocument();
+  });
 });
@@ -0,0 +1,37 @@
+import { fireEvent, render, screen } from '@testing-library/react';
+import Timeline from '../../components/Timeline';
+import type { Timeline as TimelineExtras } from '../../types/cucumber';
+
+describe('Timeline', () => {
+  const timeline: TimelineExtras = {
+    origin: 1700000000000,
+    threads: ['worker-1', 'worker-2'],
+    bars: [
+      [0, 400000, 0, 'passed', 'features/a.feature:3'],
+      [0, 200000, 1, 'failed', 'features/b.feature:4']
+    ]
+  };
+
+  afterEach(() => {
+    jest.restoreAllMocks();
+  });
+
+  it('summarizes the run and lists the threads', () => {
+    render(<Timeline timeline={timeline} />);
+
+    const view = screen.getByTestId('timeline');
+    expect(view).toHaveTextContent('2 scenarios on 2 threads over 400ms, 75.0% thread utilization');
+    expect(screen.getByText('worker-1')).toBeInTheDocument();
+    expect(screen.getByText('worker-2')).toBeInTheDocument();
+  });
+
+  it('shows the scenario under the pointer', () => {
+    const { container } = render(<Timeline timeline={timeline} />);
+    const canvas = container.querySelector('canvas') as HTMLCanvasElement;
+    jest.spyOn(canvas, 'getBoundingClientRect').mockReturnValue({ left: 0, top: 0 } as DOMRect);
+
+    fireEvent.mouseMove(canvas, { clientX: 100, clientY: 20 });
+
+    expect(screen.getByText('features/b.feature:4')).toBeInTheDocument();
+  });
+});
@@ -0,0 +1,155 @@
+import { FeatureStreamParser, loadCucumberReportFromUrl, loadCucumberReportOnStartup } from '../../data/dataLoader';
+import { createMockFeature } from '../testUtils';
+
+const parseInChunks = (text: string, size: number) => {
+  const parser = new FeatureStreamParser();
+  const features = [];
+  for (let i = 0; i < text.length; i += size) {
+    features.push(...parser.push(text.slice(i, i + size)));
+  }
+  parser.end();
+  return features;
+};
+
+const streamingResponse = (chunks: string[]) => {
+  const encoder = new TextEncoder();
+  let next = 0;
+  return {
+    json: jest.fn(),
+    body: {
+      getReader: () => ({
+        read: async () => (next < chunks.length
+          ? { done: false, value: encoder.encode(chunks[next++]) }
+          : { done: true, value: undefined }),
+        cancel: jest.fn(),
+      }),
+    },
+  };
+};
+
+describe('FeatureStreamParser', () => {
+  const features = [
+    createMockFeature({ name: 'Braces } and [ brackets', description: 'Quote \\" and \\\\' }),
+    createMockFeature({ name: 'Second' }),
+  ];
+
+  it.each([1, 3, 64, 100000])('reads a JSON array in chunks of %i', (size) => {
+    expect(parseInChunks(JSON.stringify(features, null, 2), size)).toEqual(features);
+  });
+
+  it('reads NDJSON', () => {
+    const ndjson = features.map(feature => JSON.stringify(feature)).join('\n') + '\n';
+
+    expect(parseInChunks(ndjson, 7)).toEqual(features);
+  });
+
+  it('returns each feature as soon as it is complete', () => {
+    const parser = new FeatureStreamParser();
+    const text = JSON.stringify(features);
+    const firstEnd = JSON.stringify(features[0]).length + 1;
+
+    expect(parser.push(text.slice(0, firstEnd))).toEqual([features[0]]);
+    expect(parser.push(text.slice(firstEnd))).toEqual([features[1]]);
+  });
+
+  it('rejects data that ends inside a feature', () => {
+    const parser = new FeatureStreamParser();
+    parser.push('[{"name": "cut');
+
+    expect(() => parser.end()).toThrow(SyntaxError);
+  });
+
+  it('rejects values other than features', () => {
+    expect(() => new FeatureStreamParser().push('[1]')).toThrow(SyntaxError);
+  });
+});
+
+describe('streaming loadCucumberReportFromUrl', () => {
+  beforeEach(() => {
+    Object.defineProperty(window, 'fetch', { writable: true, value: jest.fn() });
+    Object.defineProperty(window, 'setCucumberReportData', { writable: true, value: jest.fn() });
+    Object.defineProperty(window, 'appendCucumberReportData', { writable: true, value: jest.fn() });
+    jest.spyOn(console, 'log').mockImplementation(() => {});
+    jest.spyOn(console, 'error').mockImplementation(() => {});
+  });
+
+  afterEach(() => {
+    jest.restoreAllMocks();
+  });
+
+  it('publishes the first features before the rest have arrived', async () => {
+    const first = createMockFeature({ id: 'first' });
+    const second = createMockFeature({ id: 'second' });
+    const response = streamingResponse([JSON.stringify(first) + '\n', JSON.stringify(second) + '\n']);
+    (window.fetch as jest.Mock).mockResolvedValue(response);
+
+    const result = await loadCucumberReportFromUrl('http://example.com/cucumber-report-data.ndjson');
+
+    expect(result).toBe(true);
+    expect(response.json).not.toHaveBeenCalled();
+    expect(window.setCucumberReportData).toHaveBeenCalledTimes(1);
+    expect(window.setCucumberReportData).toHaveBeenCalledWith([first]);
+    expect(window.appendCucumberReportData).toHaveBeenCalledTimes(1);
+    expect(window.appendCucumberReportData).toHaveBeenCalledWith([second]);
+  });
+
+  it('hands each feature over only once while appending', async () => {
+    const features = [createMockFeature({ id: 'a' }), createMockFeature({ id: 'b' }), createMockFeature({ id: 'c' })];
+    let now = 0;
+    jest.spyOn(Date, 'now').mockImplementation(() => (now += 100));
+    (window.fetch as jest.Mock).mockResolvedValue(streamingResponse(features.map(feature => JSON.stringify(feature) + '\n')));
+
+    await loadCucumberReportFromUrl('http://example.com/cucumber-report-data.ndjson');
+
+    expect(window.setCucumberReportData).toHaveBeenCalledWith([features[0]]);
+    expect((window.appendCucumberReportData as jest.Mock).mock.calls).toEqual([[[features[1]]], [[features[2]]]]);
+  });
+
+  it('returns false when the stream is truncated', async () => {
+    (window.fetch as jest.Mock).mockResolvedValue(streamingResponse(['[{"id": "cut']));
+
+    const result = await loadCucumberReportFromUrl('http://example.com/data.json');
+
+    expect(result).toBe(false);
+    expect(console.error).toHaveBeenCalledWith('Error loading data from URL:', expect.any(SyntaxError));
+  });
+});
+
+describe('loadCucumberReportOnStartup', () => {
+  beforeEach(() => {
+    Object.defineProperty(window, 'fetch', { writable: true, value: jest.fn() });
+    Object.defineProperty(window, 'setCucumberReportData', { writable: true, value: jest.fn() });
+    window.CUCUMBER_REPORT_DATA = null;
+    jest.spyOn(console, 'log').mockImplementation(() => {});
+  });
+
+  afterEach(() => {
+    window.CUCUMBER_REPORT_DATA = null;
+    jest.restoreAllMocks();
+  });
+
+  it('streams the data file next to the page', async () => {
+    const feature = createMockFeature();
+    (window.fetch as jest.Mock).mockResolvedValue({ ok: true, ...streamingResponse([JSON.stringify(feature) + '\n']) });
+
+    const result = await loadCucumberReportOnStartup();
+
+    expect(result).toBe(true);
+    expect(window.fetch).toHaveBeenCalledWith('cucumber-report-data.ndjson');
+    expect(window.setCucumberReportData).toHaveBeenCalledWith([feature]);
+  });
+
+  it('keeps data injected into the page', async () => {
+    window.CUCUMBER_REPORT_DATA = [createMockFeature()];
+
+    expect(await loadCucumberReportOnStartup()).toBe(false);
+    expect(window.fetch).not.toHaveBeenCalled();
+  });
+
+  it('does nothing when there is no data file', async () => {
+    (window.fetch as jest.Mock).mockResolvedValue({ ok: false, status: 404 });
+
+    expect(await loadCucumberReportOnStartup()).toBe(false);
+    expect(window.setCucumberReportData).not.toHaveBeenCalled();
+  });
+});
@@ -0,0 +1,64 @@
+import { applyPatch, expandOutlineRows } from '../../data/outlineRows';
+
+describe('outlineRows', () => {
+  const template = {
+    id: 'orders;order-items;;2',
+    keyword: 'Scenario Outline',
+    type: 'scenario',
+    name: 'Order items',
+    line: 12,
+    tags: [{ name: '@orders' }],
+    steps: [
+      {
+        keyword: 'Given ',
+        name: 'an order with 1 items',
+        match: { location: 'Steps.order(int)', arguments: [{ val: '1', offset: 14 }] },
+        result: { status: 'failed', duration: 1000, error_message: 'boom' }
+      }
+    ]
+  };
+
+  // As written by OutlineCompactor for the next example row
+  const patch = {
+    id: 'orders;order-items;;3',
+    line: 13,
+    steps: [
+      {
+        name: 'an order with 2 items',
+        match: { arguments: [{ val: '2' }] },
+        result: { $removed: ['error_message'], status: 'passed', duration: 2000 }
+      }
+    ],
+    $template: 0
+  };
+
+  it('applies patches field by field and element by element', () => {
+    expect(applyPatch(template.steps, patch.steps)).toEqual([
+      {
+        keyword: 'Given ',
+        name: 'an order with 2 items',
+        match: { location: 'Steps.order(int)', arguments: [{ val: '2', offset: 14 }] },
+        result: { status: 'passed', duration: 2000 }
+      }
+    ]);
+  });
+
+  it('replaces arrays whose length differs from the template', () => {
+    expect(applyPatch([1, 2], [3])).toEqual([3]);
+    expect(applyPatch({ a: 1 }, 'value')).toBe('value');
+  });
+
+  it('expands compacted rows in place and shares unchanged fields with the template', () => {
+    const report: any[] = [{ uri: 'features/orders.feature', elements: [template, { ...patch }] }];
+
+    expandOutlineRows(report);
+    const row = report[0].elements[1];
+
+    expect(row.id).toBe('orders;order-items;;3');
+    expect(row.keyword).toBe('Scenario Outline');
+    expect(row.tags).toBe(template.tags);
+    expect(row.$template).toBeUndefined();
+    expect(row.steps[0].result).toEqual({ status: 'passed', duration: 2000 });
+    expect(template.steps[0].result.error_message).toBe('boom');
+  });
+});
@@ -104,6 +104,37 @@ describe('reportData', () => {
     });
   });
 
+  describe('appendCucumberReportData', () => {
+    let dispatchEventSpy: jest.SpyInstance;
+
+    beforeEach(async () => {
+      await import('../../data/reportData');
+      dispatchEventSpy = jest.spyOn(window, 'dispatchEvent');
+    });
+
+    afterEach(() => {
+      dispatchEventSpy.mockRestore();
+    });
+
+    it('should add features after the current ones and dispatch only the new ones', () => {
+      const first = createMockFeature({ id: 'first' });
+      const second = createMockFeature({ id: 'second' });
+      const published: CucumberReport = [first];
+      (window as any).setCucumberReportData(published);
+
+      (window as any).appendCucumberReportData([second]);
+
+      expect((window as any).CUCUMBER_REPORT_DATA).toEqual([first, second]);
+      expect(published).toEqual([first]);
+      expect(dispatchEventSpy).toHaveBeenLastCalledWith(
+        expect.objectContaining({
+          type: 'cucumberDataAppended',
+          detail: [second]
+        })
+      );
+    });
+  });
+
   describe('getCucumberReportData (window function)', () => {
     beforeEach(async () => {
       await import('../../data/reportData');
@@ -0,0 +1,56 @@
+import { resolveStrings } from '../../data/stringDictionary';
+
+describe('stringDictionary', () => {
+  const strings = ['features/orders.feature', 'Given ', 'an order with <items> items', 'Steps.order(int)', 'passed', '@smoke', 'Scenario Outline', 'scenario', 'Order items', 'Feature'];
+
+  const encodedReport = (): any[] => [
+    {
+      uri: 0,
+      keyword: 9,
+      name: 'Orders',
+      tags: [{ name: 5 }],
+      elements: [1, 2].map(row => ({
+        id: `orders;order-items;;${row}`,
+        keyword: 6,
+        type: 7,
+        name: 8,
+        line: 10 + row,
+        tags: [{ name: 5 }],
+        before: [{ match: { location: 3 }, result: { status: 4 } }],
+        steps: [{ keyword: 1, name: 2, match: { location: 3 }, result: { status: 4, duration: 1000 } }]
+      }))
+    }
+  ];
+
+  it('resolves indices to the shared string table', () => {
+    const report = resolveStrings(encodedReport(), strings);
+    const [first, second] = report[0].elements;
+
+    expect(report[0].uri).toBe('features/orders.feature');
+    expect(report[0].keyword).toBe('Feature');
+    expect(report[0].name).toBe('Orders');
+    expect(report[0].tags?.[0].name).toBe('@smoke');
+    expect(first.keyword).toBe('Scenario Outline');
+    expect(first.type).toBe('scenario');
+    expect(first.before?.[0].match?.location).toBe('Steps.order(int)');
+    expect(second.steps[0]).toEqual({
+      keyword: 'Given ',
+      name: 'an order with <items> items',
+      match: { location: 'Steps.order(int)' },
+      result: { status: 'passed', duration: 1000 }
+    });
+  });
+
+  it('resolves a report only once', () => {
+    const report = resolveStrings(encodedReport(), strings);
+    resolveStrings(report, ['changed']);
+
+    expect(report[0].uri).toBe('features/orders.feature');
+  });
+
+  it('leaves reports without a string table untouched', () => {
+    const report = [{ uri: 'features/plain.feature', elements: [] }] as any[];
+
+    expect(resolveStrings(report, undefined)[0].uri).toBe('features/plain.feature');
+  });
+});
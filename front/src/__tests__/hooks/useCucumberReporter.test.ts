@@ -17,6 +17,8 @@ jest.mock('../../utils/cucumberUtils');
 const mockGetCucumberReportData = reportData.getCucumberReportData as jest.MockedFunction<typeof reportData.getCucumberReportData>;
 const mockBuildFolderStructure = cucumberUtils.buildFolderStructure as jest.MockedFunction<typeof cucumberUtils.buildFolderStructure>;
 const mockCalculateStats = cucumberUtils.calculateStats as jest.MockedFunction<typeof cucumberUtils.calculateStats>;
+const mockMergeFolderStructures = cucumberUtils.mergeFolderStructures as jest.MockedFunction<typeof cucumberUtils.mergeFolderStructures>;
+const mockMergeStats = cucumberUtils.mergeStats as jest.MockedFunction<typeof cucumberUtils.mergeStats>;
 
 describe('useCucumberReporter hooks', () => {
   beforeEach(() => {
@@ -116,6 +118,31 @@ describe('useCucumberReporter hooks', () => {
       expect(result.current.stats).toEqual(newStats);
     });
 
+    it('should process only the features of cucumberDataAppended events', () => {
+      const { result } = renderHook(() => useCucumberData());
+      const added = [createComplexFeature()];
+      const addedFolderStructure = { 'new-features': { features: added, subfolders: {} } };
+      const addedStats = { ...mockStats, totalFeatures: 1 };
+      const mergedFolderStructure = { ...mockFolderStructure, ...addedFolderStructure };
+      const mergedStats = { ...mockStats, totalFeatures: 2 };
+      mockBuildFolderStructure.mockClear().mockReturnValue(addedFolderStructure);
+      mockCalculateStats.mockClear().mockReturnValue(addedStats);
+      mockMergeFolderStructures.mockReturnValue(mergedFolderStructure);
+      mockMergeStats.mockReturnValue(mergedStats);
+
+      act(() => {
+        window.dispatchEvent(new CustomEvent('cucumberDataAppended', { detail: added }));
+      });
+
+      expect(mockBuildFolderStructure).toHaveBeenCalledWith(added);
+      expect(mockCalculateStats).toHaveBeenCalledWith(added);
+      expect(mockMergeFolderStructures).toHaveBeenCalledWith(mockFolderStructure, addedFolderStructure);
+      expect(mockMergeStats).toHaveBeenCalledWith(mockStats, addedStats);
+      expect(result.current.reportData).toEqual([...mockData, ...added]);
+      expect(result.current.folderStructure).toBe(mergedFolderStructure);
+      expect(result.current.stats).toBe(mergedStats);
+    });
+
     it('should clean up event listener on unmount', () => {
       const removeEventListenerSpy = jest.spyOn(window, 'removeEventListener');
       const { unmount } = renderHook(() => useCucumberData());
@@ -2,7 +2,11 @@ import {
   getScenarioStatus, 
   calculateStats, 
   formatDuration, 
-  filterScenarios
+  formatBytes,
+  filterScenarios,
+  buildFolderStructure,
+  mergeFolderStructures,
+  mergeStats
 } from '../../utils/cucumberUtils';
 import { createMockFeature, createMockScenario, createMockStep } from '../testUtils';
 
@@ -94,6 +98,29 @@ describe('cucumberUtils', () => {
     });
   });
 
+  describe('mergeStats and mergeFolderStructures', () => {
+    const first = [
+      createMockFeature({ id: 'orders', uri: 'features/shop/orders.feature' }),
+      createMockFeature({ id: 'login', uri: 'features/auth/login.feature' })
+    ];
+    const added = [
+      createMockFeature({
+        id: 'payments',
+        uri: 'features/shop/payments.feature',
+        elements: [createMockScenario({ steps: [createMockStep({ result: { status: 'failed', duration: 5 } })] })]
+      })
+    ];
+
+    it('match the stats of the whole report', () => {
+      expect(mergeStats(calculateStats(first), calculateStats(added))).toEqual(calculateStats([...first, ...added]));
+    });
+
+    it('match the folder structure of the whole report', () => {
+      expect(mergeFolderStructures(buildFolderStructure(first), buildFolderStructure(added)))
+        .toEqual(buildFolderStructure([...first, ...added]));
+    });
+  });
+
   describe('formatDuration', () => {
     it('formats nanoseconds to milliseconds correctly', () => {
       expect(formatDuration(1000000)).toBe('1ms');
@@ -115,6 +142,19 @@ describe('cucumberUtils', () => {
     });
   });
 
+  describe('formatBytes', () => {
+    it('formats byte counts with binary units', () => {
+      expect(formatBytes(512)).toBe('512B');
+      expect(formatBytes(1536)).toBe('1.5KB');
+      expect(formatBytes(3 * 1024 * 1024)).toBe('3.0MB');
+    });
+
+    it('reports unsupported measurements as n/a', () => {
+      expect(formatBytes(-1)).toBe('n/a');
+      expect(formatBytes(undefined)).toBe('n/a');
+    });
+  });
+
   describe('filterScenarios', () => {
     const feature = createMockFeature({
       elements: [
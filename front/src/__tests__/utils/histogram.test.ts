@@ -0,0 +1,35 @@
+import { HISTOGRAM_BUCKETS, addDuration, bucketOf, bucketStart, createHistogram, occupiedRange } from '../../utils/histogram';
+
+describe('histogram', () => {
+  it('puts durations into log2 microsecond buckets', () => {
+    expect(bucketOf(0)).toBe(0);
+    expect(bucketOf(1500)).toBe(0);
+    expect(bucketOf(2000)).toBe(1);
+    expect(bucketOf(1000000)).toBe(9);
+    expect(bucketOf(Number.MAX_SAFE_INTEGER)).toBe(HISTOGRAM_BUCKETS - 1);
+    expect(bucketStart(9)).toBe(512000);
+  });
+
+  it('keeps counts and summary values without storing durations', () => {
+    const histogram = createHistogram();
+    [3000000, 1000000, 5000000].forEach(duration => addDuration(histogram, duration));
+
+    expect(histogram.count).toBe(3);
+    expect(histogram.total).toBe(9000000);
+    expect(histogram.min).toBe(1000000);
+    expect(histogram.max).toBe(5000000);
+    expect(histogram.counts[9]).toBe(1);
+    expect(histogram.counts[11]).toBe(1);
+    expect(histogram.counts[12]).toBe(1);
+  });
+
+  it('finds the occupied bucket range across histograms', () => {
+    const steps = createHistogram();
+    const scenarios = createHistogram();
+    addDuration(steps, 1000000);
+    addDuration(scenarios, 5000000);
+
+    expect(occupiedRange(steps, scenarios)).toEqual([9, 12]);
+    expect(occupiedRange(createHistogram())).toBeNull();
+  });
+});
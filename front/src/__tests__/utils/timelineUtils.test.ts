@@ -0,0 +1,41 @@
+import { decodeTimeline, findBar, parallelEfficiency, utilization } from '../../utils/timelineUtils';
+import type { Timeline } from '../../types/cucumber';
+
+describe('timelineUtils', () => {
+  const timeline: Timeline = {
+    origin: 1700000000000,
+    threads: ['worker-1', 'worker-2'],
+    bars: [
+      [0, 400, 0, 'passed', 'features/a.feature:3'],
+      [500, 1000, 0, 'failed', 'features/a.feature:9'],
+      [0, 250, 1, 'skipped', 'features/b.feature:4'],
+      [250, 500, 1, 'ambiguous', 'features/b.feature:8']
+    ]
+  };
+
+  it('decodes bars into typed arrays', () => {
+    const data = decodeTimeline(timeline);
+
+    expect(data.span).toBe(1000);
+    expect(Array.from(data.starts)).toEqual([0, 500, 0, 250]);
+    expect(Array.from(data.statuses)).toEqual([0, 1, 3, 4]);
+    expect(Array.from(data.byLane[1])).toEqual([2, 3]);
+  });
+
+  it('finds the bar running on a lane at a given time', () => {
+    const data = decodeTimeline(timeline);
+
+    expect(findBar(data, 0, 600)).toBe(1);
+    expect(findBar(data, 0, 450)).toBe(-1);
+    expect(findBar(data, 1, 300)).toBe(3);
+    expect(findBar(data, 5, 300)).toBe(-1);
+  });
+
+  it('computes thread utilization per bucket and overall', () => {
+    const data = decodeTimeline(timeline);
+
+    expect(Array.from(utilization(data, 4))).toEqual([1, 0.8, 0.5, 0.5]);
+    expect(Array.from(utilization(data, 2))).toEqual([0.9, 0.5]);
+    expect(parallelEfficiency(data)).toBeCloseTo(0.7);
+  });
+});
@@ -0,0 +1,76 @@
+// Step and scenario duration distributions drawn on a single canvas; drawing cost depends on
+// the number of buckets, not on the number of steps
+
+import React, { useEffect, useRef } from 'react';
+import { formatDuration } from '../utils/cucumberUtils';
+import { bucketStart, occupiedRange } from '../utils/histogram';
+import type { DurationHistogram } from '../utils/histogram';
+
+interface DurationHistogramChartProps {
+  steps: DurationHistogram;
+  scenarios: DurationHistogram;
+}
+
+const WIDTH = 600;
+const HEIGHT = 160;
+const AXIS = 16;
+const SERIES = [
+  { label: 'Steps', color: '#007acc' },
+  { label: 'Scenarios', color: '#ce9178' }
+];
+
+const DurationHistogramChart: React.FC<DurationHistogramChartProps> = ({ steps, scenarios }) => {
+  const canvasRef = useRef<HTMLCanvasElement>(null);
+  const range = occupiedRange(steps, scenarios);
+  const [first, last] = range ?? [0, -1];
+
+  useEffect(() => {
+    const context = canvasRef.current?.getContext('2d');
+    if (!context || last < first) return;
+    const histograms = [steps, scenarios];
+    const buckets = last - first + 1;
+    const slot = WIDTH / buckets;
+    const barWidth = Math.max(1, (slot - 2) / histograms.length);
+    // Each series is scaled to its own peak, as steps outnumber scenarios by far
+    const peaks = histograms.map(histogram => Math.max(1, ...histogram.counts.subarray(first, last + 1)));
+
+    context.clearRect(0, 0, WIDTH, HEIGHT);
+    histograms.forEach((histogram, series) => {
+      context.fillStyle = SERIES[series].color;
+      for (let bucket = first; bucket <= last; bucket++) {
+        const barHeight = (histogram.counts[bucket] / peaks[series]) * (HEIGHT - AXIS);
+        const x = (bucket - first) * slot + 1 + series * barWidth;
+        context.fillRect(x, HEIGHT - AXIS - barHeight, barWidth, barHeight);
+      }
+    });
+    context.fillStyle = '#858585';
+    context.font = '10px sans-serif';
+    const labelEvery = Math.ceil(buckets / 8);
+    for (let bucket = first; bucket <= last; bucket += labelEvery) {
+      context.fillText(formatDuration(bucketStart(bucket)), (bucket - first) * slot + 1, HEIGHT - 4);
+    }
+  }, [steps, scenarios, first, last]);
+
+  return (
+    <div className="bg-[#252526] rounded p-4 border border-[#3e3e42]" data-testid="duration-histogram">
+      <h3 className="text-sm font-bold mb-3 text-[#4ec9b0]">Duration Distribution</h3>
+      {range ? (
+        <>
+          <canvas ref={canvasRef} width={WIDTH} height={HEIGHT} className="w-full" />
+          <div className="flex gap-4 mt-2 text-xs text-[#858585]">
+            {SERIES.map(series => (
+              <span key={series.label} className="flex items-center">
+                <span className="w-3 h-3 rounded mr-1 inline-block" style={{ backgroundColor: series.color }} />
+                {series.label}
+              </span>
+            ))}
+          </div>
+        </>
+      ) : (
+        <div className="text-xs text-[#858585]">No durations recorded</div>
+      )}
+    </div>
+  );
+};
+
+export default DurationHistogramChart;
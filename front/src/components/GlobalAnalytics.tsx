@@ -10,7 +10,12 @@ import {
   Activity
 } from 'lucide-react';
 import { formatDuration, getScenarioStatus } from '../utils/cucumberUtils';
-import type { CucumberReport } from '../types/cucumber';
+import { getCucumberReportExtras } from '../data/reportData';
+import Timeline from './Timeline';
+import DurationHistogramChart from './DurationHistogramChart';
+import { addDuration, createHistogram } from '../utils/histogram';
+import type { DurationHistogram } from '../utils/histogram';
+import type { BaselineChange, CucumberReport } from '../types/cucumber';
 
 interface GlobalAnalyticsProps {
   reportData: CucumberReport;
@@ -58,95 +63,106 @@ interface Analytics {
   };
   passRate: number;
   failRate: number;
-  stepDurations: number[];
-  scenarioDurations: number[];
+  stepHistogram: DurationHistogram;
+  scenarioHistogram: DurationHistogram;
   featureStats: FeatureStats[];
 }
 
+interface BaselineChangesProps {
+  title: string;
+  changes: BaselineChange[];
+  color: string;
+}
+
+// Scenarios of one kind of change against the baseline run (new failures, fixed, slower)
+const BaselineChanges: React.FC<BaselineChangesProps> = ({ title, changes, color }) => (
+  <div className="mb-3">
+    <div className={`text-xs font-bold mb-1 ${color}`}>{title} ({changes.length})</div>
+    {changes.length > 0 && (
+      <table className="w-full text-xs">
+        <tbody>
+          {changes.map(change => (
+            <tr key={`${change.id}:${change.line}`} className="border-b border-[#3e3e42] hover:bg-[#2a2d2e]">
+              <td className="py-1 text-[#cccccc] truncate max-w-xs" title={change.name}>{change.name}</td>
+              <td className="py-1 text-[#858585]">{change.uri}:{change.line}</td>
+              <td className="py-1 text-right text-[#858585]">{change.baseline_status} → {change.status}</td>
+              <td className="py-1 text-right text-[#ce9178]">
+                {formatDuration(change.baseline_duration)} → {formatDuration(change.duration)}
+              </td>
+            </tr>
+          ))}
+        </tbody>
+      </table>
+    )}
+  </div>
+);
+
 const GlobalAnalytics: React.FC<GlobalAnalyticsProps> = ({ reportData }) => {
-  // Calculate comprehensive analytics from report data
+  // Calculate comprehensive analytics from report data in one pass over the steps, keeping
+  // counters and duration histograms rather than arrays of every step and scenario
   const analytics = useMemo((): Analytics => {
-    if (!reportData || reportData.length === 0) {
-      return {
-        scenarios: { total: 0, passed: 0, failed: 0, pending: 0, skipped: 0 },
-        steps: { total: 0, passed: 0, failed: 0, pending: 0, skipped: 0 },
-        features: { total: 0 },
-        executionTime: { total: 0, average: 0, min: 0, max: 0 },
-        passRate: 0,
-        failRate: 0,
-        stepDurations: [],
-        scenarioDurations: [],
-        featureStats: []
-      };
-    }
-
-    const scenarios: any[] = [];
-    const steps: any[] = [];
+    const scenarioStats = { total: 0, passed: 0, failed: 0, pending: 0, skipped: 0 };
+    const stepStats = { total: 0, passed: 0, failed: 0, pending: 0, skipped: 0 };
+    const stepHistogram = createHistogram();
+    const scenarioHistogram = createHistogram();
     const features: FeatureStats[] = [];
-    
-    // Process all data
-    reportData.forEach(feature => {
-      const featureScenarios = feature.elements?.filter(e => e.type === 'scenario') || [];
-      const featureSteps = featureScenarios.flatMap(s => s.steps || []);
-      
-      features.push({
-        name: feature.name || feature.uri,
-        scenarios: featureScenarios.length,
-        steps: featureSteps.length,
-        passed: featureScenarios.filter(s => getScenarioStatus(s) === 'passed').length,
-        failed: featureScenarios.filter(s => getScenarioStatus(s) === 'failed').length,
-        duration: featureSteps.reduce((sum, step) => sum + (step.result?.duration || 0), 0)
-      });
-      
-      scenarios.push(...featureScenarios);
-      steps.push(...featureSteps);
-    });
 
-    // Calculate scenario stats
-    const scenarioStats = {
-      total: scenarios.length,
-      passed: scenarios.filter(s => getScenarioStatus(s) === 'passed').length,
-      failed: scenarios.filter(s => getScenarioStatus(s) === 'failed').length,
-      pending: scenarios.filter(s => getScenarioStatus(s) === 'pending').length,
-      skipped: scenarios.filter(s => getScenarioStatus(s) === 'skipped').length,
-    };
+    (reportData || []).forEach(feature => {
+      const featureStats: FeatureStats = {
+        name: feature.name || feature.uri,
+        scenarios: 0,
+        steps: 0,
+        passed: 0,
+        failed: 0,
+        duration: 0
+      };
 
-    // Calculate step stats
-    const stepStats = {
-      total: steps.length,
-      passed: steps.filter(s => s.result?.status === 'passed').length,
-      failed: steps.filter(s => s.result?.status === 'failed').length,
-      pending: steps.filter(s => s.result?.status === 'pending').length,
-      skipped: steps.filter(s => s.result?.status === 'skipped').length,
-    };
+      feature.elements?.forEach(scenario => {
+        if (scenario.type !== 'scenario') return;
+        const status = getScenarioStatus(scenario);
+        scenarioStats.total++;
+        featureStats.scenarios++;
+        scenarioStats[status]++;
+        if (status === 'passed') featureStats.passed++;
+        if (status === 'failed') featureStats.failed++;
 
-    // Calculate execution times
-    const stepDurations = steps
-      .filter(s => s.result?.duration > 0)
-      .map(s => s.result.duration);
-    
-    const scenarioDurations = scenarios.map(scenario => {
-      const scenarioSteps = scenario.steps || [];
-      return scenarioSteps.reduce((sum: number, step: any) => sum + (step.result?.duration || 0), 0);
-    }).filter(d => d > 0);
+        let scenarioDuration = 0;
+        scenario.steps?.forEach(step => {
+          const stepStatus = step.result?.status;
+          const duration = step.result?.duration || 0;
+          stepStats.total++;
+          featureStats.steps++;
+          if (stepStatus === 'passed' || stepStatus === 'failed' || stepStatus === 'pending' || stepStatus === 'skipped') {
+            stepStats[stepStatus]++;
+          }
+          featureStats.duration += duration;
+          if (duration > 0) {
+            addDuration(stepHistogram, duration);
+            scenarioDuration += duration;
+          }
+        });
+        if (scenarioDuration > 0) {
+          addDuration(scenarioHistogram, scenarioDuration);
+        }
+      });
 
-    const totalExecutionTime = stepDurations.reduce((sum, d) => sum + d, 0);
-    const averageStepTime = stepDurations.length > 0 ? totalExecutionTime / stepDurations.length : 0;
+      features.push(featureStats);
+    });
 
     return {
       scenarios: scenarioStats,
       steps: stepStats,
       features: { total: features.length },
       executionTime: {
-        total: totalExecutionTime,
-        average: averageStepTime,
-        min: stepDurations.length > 0 ? Math.min(...stepDurations) : 0,
-        max: stepDurations.length > 0 ? Math.max(...stepDurations) : 0
+        total: stepHistogram.total,
+        average: stepHistogram.count > 0 ? stepHistogram.total / stepHistogram.count : 0,
+        min: stepHistogram.min,
+        max: stepHistogram.max
       },
       passRate: scenarioStats.total > 0 ? (scenarioStats.passed / scenarioStats.total) * 100 : 0,
       failRate: scenarioStats.total > 0 ? (scenarioStats.failed / scenarioStats.total) * 100 : 0,
-      stepDurations,
-      scenarioDurations,
+      stepHistogram,
+      scenarioHistogram,
       featureStats: features.sort((a, b) => b.duration - a.duration)
     };
   }, [reportData]);
@@ -278,6 +294,11 @@ const GlobalAnalytics: React.FC<GlobalAnalyticsProps> = ({ reportData }) => {
     { label: 'Skipped', value: analytics.steps.skipped, color: 'bg-[#6b7280]', strokeColor: '#6b7280' }
   ];
 
+  const extras = getCucumberReportExtras();
+  const failureClusters = extras.failureClusters || [];
+  const baseline = extras.baseline;
+  const timeline = extras.timeline;
+
   const topFeaturesData: ChartDataItem[] = analytics.featureStats.slice(0, 5).map(f => ({
     label: f.name.length > 15 ? f.name.substring(0, 15) + '...' : f.name,
     value: Math.round(f.duration / 10000000), // Convert to seconds
@@ -390,6 +411,51 @@ const GlobalAnalytics: React.FC<GlobalAnalyticsProps> = ({ reportData }) => {
           </div>
         </div>
 
+        {/* Execution Timeline */}
+        {timeline && timeline.bars.length > 0 && <Timeline timeline={timeline} />}
+
+        {/* Baseline Comparison */}
+        {baseline && (
+          <div className="bg-[#252526] rounded p-4 border border-[#3e3e42] mb-6" data-testid="baseline-comparison">
+            <h3 className="text-sm font-bold mb-1 text-[#4ec9b0]">Comparison with {baseline.name}</h3>
+            <p className="text-xs text-[#858585] mb-3">
+              {baseline.matched} scenarios in both runs, {baseline.added} new, {baseline.removed} no longer run
+            </p>
+            <BaselineChanges title="New failures" changes={baseline.new_failures} color="text-[#ef4444]" />
+            <BaselineChanges title="Fixed" changes={baseline.fixed} color="text-[#4ade80]" />
+            <BaselineChanges title="Slower" changes={baseline.slower} color="text-[#f59e0b]" />
+          </div>
+        )}
+
+        {/* Failure Clusters */}
+        {failureClusters.length > 0 && (
+          <div className="bg-[#252526] rounded p-4 border border-[#3e3e42] mb-6" data-testid="failure-clusters">
+            <h3 className="text-sm font-bold mb-3 text-[#4ec9b0]">Failure Clusters</h3>
+            <div className="space-y-2">
+              {failureClusters.map(cluster => (
+                <details key={cluster.signature} className="border-b border-[#3e3e42] pb-2">
+                  <summary className="cursor-pointer text-xs flex items-center gap-3">
+                    <span className="text-[#ef4444] font-bold w-12 text-right">{cluster.count}×</span>
+                    <span className="text-[#cccccc] truncate flex-1" title={cluster.message}>{cluster.message}</span>
+                    <span className="text-[#858585] font-mono">{cluster.signature}</span>
+                  </summary>
+                  <div className="mt-2 ml-16 text-xs text-[#858585]">
+                    First seen in <span className="text-[#cccccc]">{cluster.scenario}</span> ({cluster.uri}:{cluster.line})
+                  </div>
+                  <pre className="mt-2 ml-16 text-xs text-[#f48771] whitespace-pre-wrap font-mono max-h-64 overflow-y-auto">
+                    {cluster.representative}
+                  </pre>
+                </details>
+              ))}
+            </div>
+          </div>
+        )}
+
+        {/* Duration Distribution */}
+        <div className="mb-6">
+          <DurationHistogramChart steps={analytics.stepHistogram} scenarios={analytics.scenarioHistogram} />
+        </div>
+
         {/* Feature Performance Table */}
         {analytics.featureStats.length > 0 && (
           <div className="bg-[#252526] rounded p-4 border border-[#3e3e42]">
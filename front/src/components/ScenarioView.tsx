@@ -2,7 +2,8 @@
 
 import React from 'react';
 import StatusIcon from './StatusIcon';
-import { formatDuration, getScenarioStatus } from '../utils/cucumberUtils';
+import { formatBytes, formatDuration, getScenarioKey, getScenarioStatus } from '../utils/cucumberUtils';
+import { getCucumberReportExtras } from '../data/reportData';
 import type { CucumberScenario, CucumberReport, CucumberFeature } from '../types/cucumber';
 
 interface ScenarioViewProps {
@@ -22,6 +23,13 @@ const ScenarioView: React.FC<ScenarioViewProps> = ({ scenario, reportData }) =>
     );
   }
 
+  // Only look up the owning feature when the run recorded profiles
+  const profiles = getCucumberReportExtras().profiles;
+  const profileFeature = profiles && reportData.find(f => f.elements.some(e => e.id === selectedItem.id));
+  const profile = profiles && profileFeature
+    ? profiles[getScenarioKey(profileFeature, selectedItem)]
+    : undefined;
+
   return (
     <div className="font-mono min-w-0 w-full">
       {/* Gherkin Feature File View */}
@@ -104,6 +112,20 @@ const ScenarioView: React.FC<ScenarioViewProps> = ({ scenario, reportData }) =>
           <StatusIcon status={getScenarioStatus(selectedItem)} size="lg" />
           <h2 className="text-lg ml-2">{selectedItem.name}</h2>
         </div>
+        {profile && (
+          <div className="flex flex-wrap gap-x-4 text-xs text-[#858585]" data-testid="scenario-profile">
+            <span>Thread: <span className="text-[#cccccc]">{profile.thread}</span></span>
+            <span>Wall time: <span className="text-[#cccccc]">{formatDuration(profile.duration)}</span></span>
+            <span>GC: <span className="text-[#cccccc]">{formatDuration(profile.gc_time)} ({profile.gc_count} collections)</span></span>
+            <span>Allocated: <span className="text-[#cccccc]">{formatBytes(profile.allocated_bytes)}</span></span>
+          </div>
+        )}
+        {selectedItem.baseline && (
+          <div className="text-xs text-[#858585] mt-1" data-testid="scenario-baseline">
+            Baseline run: <span className="text-[#cccccc]">{selectedItem.baseline.status}</span> in{' '}
+            <span className="text-[#cccccc]">{formatDuration(selectedItem.baseline.duration)}</span>
+          </div>
+        )}
       </div>
       
       <div className="space-y-3">
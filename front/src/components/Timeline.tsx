@@ -0,0 +1,127 @@
+// Gantt view of when and on which thread each scenario ran, drawn on canvas so that runs with
+// 100k scenarios stay smooth, with a thread utilization graph underneath
+
+import React, { useEffect, useMemo, useRef, useState } from 'react';
+import { formatDuration } from '../utils/cucumberUtils';
+import {
+  TIMELINE_STATUSES,
+  decodeTimeline,
+  findBar,
+  parallelEfficiency,
+  utilization
+} from '../utils/timelineUtils';
+import type { Timeline as TimelineExtras } from '../types/cucumber';
+
+interface TimelineProps {
+  timeline: TimelineExtras;
+}
+
+const LANE_HEIGHT = 14;
+const UTILIZATION_HEIGHT = 48;
+const DEFAULT_WIDTH = 1000;
+const STATUS_COLORS = ['#4ade80', '#ef4444', '#f59e0b', '#6b7280', '#a78bfa'];
+
+interface HoveredBar {
+  index: number;
+  x: number;
+  y: number;
+}
+
+const Timeline: React.FC<TimelineProps> = ({ timeline }) => {
+  const data = useMemo(() => decodeTimeline(timeline), [timeline]);
+  const containerRef = useRef<HTMLDivElement>(null);
+  const barsRef = useRef<HTMLCanvasElement>(null);
+  const utilizationRef = useRef<HTMLCanvasElement>(null);
+  const [width, setWidth] = useState(DEFAULT_WIDTH);
+  const [hovered, setHovered] = useState<HoveredBar | null>(null);
+
+  useEffect(() => {
+    const measured = containerRef.current?.clientWidth;
+    if (measured) setWidth(measured);
+  }, []);
+
+  const busy = useMemo(() => utilization(data, width), [data, width]);
+  const efficiency = useMemo(() => parallelEfficiency(data), [data]);
+  const height = data.threads.length * LANE_HEIGHT;
+
+  useEffect(() => {
+    const context = barsRef.current?.getContext('2d');
+    if (!context || data.span <= 0) return;
+    context.clearRect(0, 0, width, height);
+    const scale = width / data.span;
+    // One pass per status keeps fillStyle changes to a handful
+    STATUS_COLORS.forEach((color, status) => {
+      context.fillStyle = color;
+      for (let index = 0; index < data.starts.length; index++) {
+        if (data.statuses[index] !== status) continue;
+        const x = data.starts[index] * scale;
+        const barWidth = Math.max(1, (data.ends[index] - data.starts[index]) * scale);
+        context.fillRect(x, data.lanes[index] * LANE_HEIGHT + 1, barWidth, LANE_HEIGHT - 2);
+      }
+    });
+  }, [data, width, height]);
+
+  useEffect(() => {
+    const context = utilizationRef.current?.getContext('2d');
+    if (!context) return;
+    context.clearRect(0, 0, width, UTILIZATION_HEIGHT);
+    context.fillStyle = '#007acc';
+    for (let column = 0; column < busy.length; column++) {
+      const barHeight = busy[column] * UTILIZATION_HEIGHT;
+      context.fillRect(column, UTILIZATION_HEIGHT - barHeight, 1, barHeight);
+    }
+  }, [busy, width]);
+
+  const handleMouseMove = (event: React.MouseEvent<HTMLCanvasElement>) => {
+    const bounds = event.currentTarget.getBoundingClientRect();
+    const x = event.clientX - bounds.left;
+    const y = event.clientY - bounds.top;
+    const index = findBar(data, Math.floor(y / LANE_HEIGHT), (x / width) * data.span);
+    setHovered(index >= 0 ? { index, x, y } : null);
+  };
+
+  return (
+    <div className="bg-[#252526] rounded p-4 border border-[#3e3e42] mb-6" data-testid="timeline">
+      <h3 className="text-sm font-bold mb-1 text-[#4ec9b0]">Execution Timeline</h3>
+      <p className="text-xs text-[#858585] mb-3">
+        {data.starts.length} scenarios on {data.threads.length} threads over {formatDuration(data.span * 1000)},{' '}
+        {(efficiency * 100).toFixed(1)}% thread utilization
+      </p>
+      <div className="flex">
+        <div className="text-[10px] text-[#858585] mr-2 shrink-0">
+          {data.threads.map(thread => (
+            <div key={thread} className="truncate max-w-[10rem]" style={{ height: LANE_HEIGHT, lineHeight: `${LANE_HEIGHT}px` }} title={thread}>
+              {thread}
+            </div>
+          ))}
+        </div>
+        <div ref={containerRef} className="relative flex-1 min-w-0">
+          <canvas
+            ref={barsRef}
+            width={width}
+            height={height}
+            className="block bg-[#1e1e1e]"
+            onMouseMove={handleMouseMove}
+            onMouseLeave={() => setHovered(null)}
+          />
+          {hovered && (
+            <div
+              className="absolute z-10 pointer-events-none bg-[#1e1e1e] border border-[#3e3e42] rounded px-2 py-1 text-xs text-[#cccccc] whitespace-nowrap"
+              style={{ left: hovered.x + 12, top: hovered.y + 12 }}
+            >
+              <div>{data.keys[hovered.index]}</div>
+              <div className="text-[#858585]">
+                {TIMELINE_STATUSES[data.statuses[hovered.index]]} · {data.threads[data.lanes[hovered.index]]} ·{' '}
+                {formatDuration((data.ends[hovered.index] - data.starts[hovered.index]) * 1000)}
+              </div>
+            </div>
+          )}
+          <div className="text-[10px] text-[#858585] mt-2">Busy threads</div>
+          <canvas ref={utilizationRef} width={width} height={UTILIZATION_HEIGHT} className="block bg-[#1e1e1e]" />
+        </div>
+      </div>
+    </div>
+  );
+};
+
+export default Timeline;
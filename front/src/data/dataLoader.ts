@@ -1,7 +1,7 @@
 // Script to load Cucumber report data
 // This script can be injected into the page or included as a separate script tag
 
-import type { CucumberReport } from '../types/cucumber';
+import type { CucumberFeature, CucumberReport } from '../types/cucumber';
 
 // Example usage:
 // loadCucumberReport(yourJsonData);
@@ -40,12 +40,158 @@ function loadCucumberReportFromString(jsonString: string): boolean {
   }
 }
 
-// Example of how to load data from a URL
+/**
+ * Splits streamed report text into features as soon as each one is complete. Accepts both a
+ * Cucumber JSON array and NDJSON (one feature per line, as written by
+ * `cucumber.reportr.data.ndjson`). Only the top level is scanned; each feature is handed to
+ * `JSON.parse` whole.
+ */
+class FeatureStreamParser {
+  private buffer = '';
+  private position = 0;
+  private start = -1;
+  private depth = 0;
+  private inArray = false;
+  private inString = false;
+  private escaped = false;
+
+  push(chunk: string): CucumberFeature[] {
+    const features: CucumberFeature[] = [];
+    this.buffer += chunk;
+    const base = () => (this.inArray ? 1 : 0);
+    for (; this.position < this.buffer.length; this.position++) {
+      const char = this.buffer[this.position];
+      if (this.inString) {
+        if (this.escaped) {
+          this.escaped = false;
+        } else if (char === '\\') {
+          this.escaped = true;
+        } else if (char === '"') {
+          this.inString = false;
+        }
+      } else if (this.start >= 0) {
+        if (char === '"') {
+          this.inString = true;
+        } else if (char === '{' || char === '[') {
+          this.depth++;
+        } else if ((char === '}' || char === ']') && --this.depth === base()) {
+          features.push(JSON.parse(this.buffer.slice(this.start, this.position + 1)));
+          this.start = -1;
+        }
+      } else if (char === '{') {
+        this.start = this.position;
+        this.depth++;
+      } else if (char === '[' && this.depth === 0 && !this.inArray) {
+        this.inArray = true;
+        this.depth = 1;
+      } else if (char === ']' && this.inArray && this.depth === 1) {
+        this.depth = 0;
+      } else if (char !== ',' && char.trim() !== '') {
+        throw new SyntaxError(`Unexpected '${char}' between features`);
+      }
+    }
+    // Keep only the feature still being read
+    const keep = this.start >= 0 ? this.start : this.buffer.length;
+    this.buffer = this.buffer.slice(keep);
+    this.position -= keep;
+    if (this.start >= 0) {
+      this.start = 0;
+    }
+    return features;
+  }
+
+  end(): void {
+    if (this.start >= 0 || this.depth !== 0) {
+      throw new SyntaxError('Report data ended in the middle of a feature');
+    }
+  }
+}
+
+// Publish at most this often while streaming, so large reports do not re-render per feature
+const PUBLISH_INTERVAL_MS = 100;
+
+// Written next to the report by cucumber.reportr.data.ndjson
+const REPORT_DATA_FILE = 'cucumber-report-data.ndjson';
+
+function appendCucumberReport(features: CucumberReport): boolean {
+  if (typeof window === 'undefined' || !window.appendCucumberReportData) {
+    console.error('Cucumber reporter not found or not ready');
+    return false;
+  }
+  window.appendCucumberReportData(features);
+  return true;
+}
+
+// The first features replace any report shown so far, later ones are appended as they arrive
+async function streamCucumberReport(reader: ReadableStreamDefaultReader<Uint8Array>): Promise<boolean> {
+  const decoder = new TextDecoder();
+  const parser = new FeatureStreamParser();
+  let pending: CucumberFeature[] = [];
+  let started = false;
+  let publishedAt = 0;
+  const publish = (): boolean => {
+    const features = pending;
+    pending = [];
+    const published = started ? appendCucumberReport(features) : loadCucumberReport(features);
+    started = true;
+    publishedAt = Date.now();
+    return published;
+  };
+  for (;;) {
+    const { done, value } = await reader.read();
+    if (done) {
+      break;
+    }
+    pending.push(...parser.push(decoder.decode(value, { stream: true })));
+    if (pending.length > 0 && Date.now() - publishedAt >= PUBLISH_INTERVAL_MS && !publish()) {
+      await reader.cancel();
+      return false;
+    }
+  }
+  pending.push(...parser.push(decoder.decode()));
+  parser.end();
+  return pending.length > 0 || !started ? publish() : true;
+}
+
+async function loadCucumberReportFromResponse(response: Response): Promise<boolean> {
+  const reader = response.body?.getReader?.();
+  if (!reader) {
+    const data: CucumberReport = await response.json();
+    return loadCucumberReport(data);
+  }
+  return streamCucumberReport(reader);
+}
+
+// Load data from a URL, rendering features as they arrive when the response can be streamed
 async function loadCucumberReportFromUrl(url: string): Promise<boolean> {
   try {
     const response = await fetch(url);
-    const data: CucumberReport = await response.json();
-    return loadCucumberReport(data);
+    return await loadCucumberReportFromResponse(response);
+  } catch (error) {
+    console.error('Error loading data from URL:', error);
+    return false;
+  }
+}
+
+// Streams the report data file (or the `data` query parameter) into a page that was built without
+// injected data. Quietly does nothing when the page has data or the file is not there.
+async function loadCucumberReportOnStartup(): Promise<boolean> {
+  if (window.CUCUMBER_REPORT_DATA) {
+    return false;
+  }
+  const url = new URLSearchParams(window.location.search).get('data') || REPORT_DATA_FILE;
+  let response: Response;
+  try {
+    response = await fetch(url);
+  } catch {
+    // Pages opened from disk cannot fetch files next to them in most browsers
+    return false;
+  }
+  if (!response.ok) {
+    return false;
+  }
+  try {
+    return await loadCucumberReportFromResponse(response);
   } catch (error) {
     console.error('Error loading data from URL:', error);
     return false;
@@ -56,10 +202,13 @@ async function loadCucumberReportFromUrl(url: string): Promise<boolean> {
 (window as any).loadCucumberReport = loadCucumberReport;
 (window as any).loadCucumberReportFromString = loadCucumberReportFromString;
 (window as any).loadCucumberReportFromUrl = loadCucumberReportFromUrl;
+(window as any).loadCucumberReportOnStartup = loadCucumberReportOnStartup;
 
 // Export for module usage
 export {
   loadCucumberReport,
   loadCucumberReportFromString,
-  loadCucumberReportFromUrl
+  loadCucumberReportFromUrl,
+  loadCucumberReportOnStartup,
+  FeatureStreamParser
 };
@@ -0,0 +1,55 @@
+// Expands scenario outline rows and repeated backgrounds that the Java plugin wrote as patches
+// against their first occurrence (cucumber.reportr.outlines.compact). Every row is expanded when
+// the report is loaded, since the summaries and analytics read the results of all of them.
+
+import type { CucumberReport } from '../types/cucumber';
+
+type Json = any;
+
+const TEMPLATE = '$template';
+const REMOVED = '$removed';
+
+const expanded = new WeakSet<object>();
+
+const isObject = (value: Json): boolean =>
+  value !== null && typeof value === 'object' && !Array.isArray(value);
+
+// Objects patch field by field, arrays of the template's length element by element, anything else replaces
+export const applyPatch = (template: Json, patch: Json): Json => {
+  if (isObject(template) && isObject(patch)) {
+    const removed: string[] = patch[REMOVED] || [];
+    const result: Json = {};
+    Object.keys(template).forEach(key => {
+      if (!(key in patch) && !removed.includes(key)) {
+        result[key] = template[key];
+      }
+    });
+    Object.keys(patch).forEach(key => {
+      if (key !== REMOVED && key !== TEMPLATE) {
+        result[key] = applyPatch(template[key], patch[key]);
+      }
+    });
+    return result;
+  }
+  if (Array.isArray(template) && Array.isArray(patch) && template.length === patch.length) {
+    return patch.map((value, index) => applyPatch(template[index], value));
+  }
+  return patch;
+};
+
+// Expands the report in place, once; later calls with the same report are no-ops
+export const expandOutlineRows = (report: CucumberReport): CucumberReport => {
+  if (expanded.has(report)) {
+    return report;
+  }
+  expanded.add(report);
+  report.forEach((feature: Json) => {
+    const elements: Json[] | undefined = feature?.elements;
+    elements?.forEach((element, index) => {
+      if (element && typeof element[TEMPLATE] === 'number') {
+        elements[index] = applyPatch(elements[element[TEMPLATE]], element);
+      }
+    });
+  });
+  return report;
+};
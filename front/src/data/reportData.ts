@@ -1,13 +1,17 @@
 // Global report data variable that can be modified by external scripts
 // This variable will hold the cucumber report JSON data
 
-import type { CucumberReport } from '../types/cucumber';
+import type { CucumberReport, ReportExtras } from '../types/cucumber';
+import { resolveStrings } from './stringDictionary';
+import { expandOutlineRows } from './outlineRows';
 
 // Extend the Window interface to include our custom properties
 declare global {
   interface Window {
     CUCUMBER_REPORT_DATA: CucumberReport | null;
+    CUCUMBER_REPORT_EXTRAS: ReportExtras | null;
     setCucumberReportData: (data: CucumberReport) => void;
+    appendCucumberReportData: (features: CucumberReport) => void;
     getCucumberReportData: () => CucumberReport | null;
   }
 }
@@ -16,6 +20,9 @@ declare global {
 if (typeof window.CUCUMBER_REPORT_DATA === 'undefined') {
   window.CUCUMBER_REPORT_DATA = null;
 }
+if (typeof window.CUCUMBER_REPORT_EXTRAS === 'undefined') {
+  window.CUCUMBER_REPORT_EXTRAS = null;
+}
 
 // Helper function to set the report data
 window.setCucumberReportData = function(data: CucumberReport) {
@@ -26,10 +33,29 @@ window.setCucumberReportData = function(data: CucumberReport) {
   window.dispatchEvent(event);
 };
 
+// Adds features to the report, e.g. while it streams in; listeners only process the new ones
+window.appendCucumberReportData = function(features: CucumberReport) {
+  const added = decodeReport(features);
+  window.CUCUMBER_REPORT_DATA = (window.CUCUMBER_REPORT_DATA || []).concat(added);
+
+  const event = new CustomEvent('cucumberDataAppended', { detail: added });
+  window.dispatchEvent(event);
+};
+
 // Helper function to get the current report data
 window.getCucumberReportData = function(): CucumberReport | null {
-  return window.CUCUMBER_REPORT_DATA;
+  return getCucumberReportData();
 };
 
-// Export the getter function for React components
-export const getCucumberReportData = (): CucumberReport | null => window.CUCUMBER_REPORT_DATA;
+// Optional sections injected by the Java plugin next to the report data (profiles, ...)
+export const getCucumberReportExtras = (): ReportExtras => window.CUCUMBER_REPORT_EXTRAS || {};
+
+// Restores the interned strings and compacted outline rows written by the plugin, in place
+const decodeReport = (data: CucumberReport): CucumberReport =>
+  expandOutlineRows(resolveStrings(data, getCucumberReportExtras().strings));
+
+// Export the getter function for React components; the report is decoded on first access
+export const getCucumberReportData = (): CucumberReport | null => {
+  const data = window.CUCUMBER_REPORT_DATA;
+  return data ? decodeReport(data) : data;
+};
@@ -0,0 +1,57 @@
+// Resolves the string table written by the Java plugin (cucumber.reportr.strings.dictionary).
+// Repeated values are injected as indices into CUCUMBER_REPORT_EXTRAS.strings; resolving them
+// points every occurrence at the same table entry, so each distinct string is held only once.
+
+import type { CucumberReport } from '../types/cucumber';
+
+type Node = Record<string, any> | undefined;
+
+const resolved = new WeakSet<object>();
+
+const resolve = (node: Node, field: string, strings: string[]) => {
+  if (node && typeof node[field] === 'number') {
+    node[field] = strings[node[field]];
+  }
+};
+
+const resolveTags = (node: Node, strings: string[]) => {
+  node?.tags?.forEach((tag: Node) => resolve(tag, 'name', strings));
+};
+
+const resolveResult = (stepOrHook: Node, strings: string[]) => {
+  resolve(stepOrHook?.match, 'location', strings);
+  resolve(stepOrHook?.result, 'status', strings);
+};
+
+const resolveHooks = (hooks: Node[] | undefined, strings: string[]) => {
+  hooks?.forEach(hook => resolveResult(hook, strings));
+};
+
+// Resolves the report in place, once; later calls with the same report are no-ops
+export const resolveStrings = (report: CucumberReport, strings: string[] | undefined): CucumberReport => {
+  if (!strings || resolved.has(report)) {
+    return report;
+  }
+  resolved.add(report);
+  report.forEach((feature: Node) => {
+    resolve(feature, 'uri', strings);
+    resolve(feature, 'keyword', strings);
+    resolveTags(feature, strings);
+    feature?.elements?.forEach((element: Node) => {
+      resolve(element, 'keyword', strings);
+      resolve(element, 'type', strings);
+      resolve(element, 'name', strings);
+      resolveTags(element, strings);
+      resolveHooks(element?.before, strings);
+      element?.steps?.forEach((step: Node) => {
+        resolveHooks(step?.before, strings);
+        resolve(step, 'keyword', strings);
+        resolve(step, 'name', strings);
+        resolveResult(step, strings);
+        resolveHooks(step?.after, strings);
+      });
+      resolveHooks(element?.after, strings);
+    });
+  });
+  return report;
+};
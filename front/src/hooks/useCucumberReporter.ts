@@ -2,7 +2,7 @@
 
 import { useState, useEffect, useCallback } from 'react';
 import { getCucumberReportData } from '../data/reportData';
-import { buildFolderStructure, calculateStats } from '../utils/cucumberUtils';
+import { buildFolderStructure, calculateStats, mergeFolderStructures, mergeStats } from '../utils/cucumberUtils';
 import type { 
   CucumberReport, 
   FolderStructure, 
@@ -77,10 +77,22 @@ export const useCucumberData = (): CucumberDataHook => {
       setStats(stats);
     };
 
+    // Features streamed in after the first ones; only the new features are processed
+    const handleDataAppend = (event: CustomEvent<CucumberReport>) => {
+      const added = event.detail;
+      const addedFolders = buildFolderStructure(added);
+      const addedStats = calculateStats(added);
+      setReportData(previous => previous.concat(added));
+      setFolderStructure(previous => mergeFolderStructures(previous, addedFolders));
+      setStats(previous => mergeStats(previous, addedStats));
+    };
+
     window.addEventListener('cucumberDataUpdated', handleDataUpdate as any);
+    window.addEventListener('cucumberDataAppended', handleDataAppend as any);
 
     return () => {
       window.removeEventListener('cucumberDataUpdated', handleDataUpdate as any);
+      window.removeEventListener('cucumberDataAppended', handleDataAppend as any);
     };
   }, []); // Run only once on mount
 
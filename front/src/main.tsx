@@ -1,6 +1,7 @@
 import React from 'react';
 import ReactDOM from 'react-dom/client';
 import App from './App';
+import { loadCucumberReportOnStartup } from './data/dataLoader';
 import './index.css';
 
 const rootElement = document.getElementById('root');
@@ -13,3 +14,6 @@ ReactDOM.createRoot(rootElement).render(
     <App />
   </React.StrictMode>,
 );
+
+// Pages built without injected data stream cucumber-report-data.ndjson from next to them instead
+loadCucumberReportOnStartup();
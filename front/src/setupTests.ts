@@ -1,4 +1,5 @@
 import '@testing-library/jest-dom';
+import { TextDecoder, TextEncoder } from 'util';
 
 // Mock window.matchMedia for tests
 Object.defineProperty(window, 'matchMedia', {
@@ -29,6 +30,12 @@ Object.defineProperty(window, 'matchMedia', {
   disconnect() {}
 };
 
+// jsdom has no TextDecoder for the streaming loader
+Object.assign(globalThis, { TextDecoder, TextEncoder });
+
+// jsdom has no canvas; charts skip drawing without a context
+HTMLCanvasElement.prototype.getContext = (() => null) as any;
+
 // Mock window.CUCUMBER_REPORT_DATA
 Object.defineProperty(window, 'CUCUMBER_REPORT_DATA', {
   writable: true,
@@ -15,6 +15,7 @@ export interface StepResult {
   status: 'passed' | 'failed' | 'skipped' | 'pending' | 'undefined';
   duration?: number;
   error_message?: string;
+  error_signature?: string;
 }
 
 export interface StepMatch {
@@ -54,6 +55,13 @@ export interface CucumberScenario {
   steps: CucumberStep[];
   before?: Hook[];
   after?: Hook[];
+  baseline?: BaselineResult;
+}
+
+// Outcome of the same scenario in the baseline run, set on scenarios that changed
+export interface BaselineResult {
+  status: string;
+  duration: number;
 }
 
 export interface CucumberFeature {
@@ -82,6 +90,64 @@ export interface Hook {
 // Application specific types
 export type CucumberReport = CucumberFeature[];
 
+// Per-scenario performance summary recorded by the Java plugin (durations in nanoseconds)
+export interface ScenarioProfile {
+  thread: string;
+  duration: number;
+  gc_count: number;
+  gc_time: number;
+  allocated_bytes: number;
+}
+
+// Optional report sections injected next to the report data, keyed by section name
+export interface FailureCluster {
+  signature: string;
+  count: number;
+  message: string;
+  representative: string;
+  uri: string;
+  line: number;
+  scenario: string;
+}
+
+export interface BaselineChange {
+  id: string;
+  uri: string;
+  line: number;
+  name: string;
+  baseline_status: string;
+  status: string;
+  baseline_duration: number;
+  duration: number;
+}
+
+export interface BaselineComparison {
+  name: string;
+  matched: number;
+  added: number;
+  removed: number;
+  new_failures: BaselineChange[];
+  fixed: BaselineChange[];
+  slower: BaselineChange[];
+}
+
+// [start µs, end µs, thread index, status, "uri:line"], times relative to origin
+export type TimelineBar = [number, number, number, string, string];
+
+export interface Timeline {
+  origin: number;
+  threads: string[];
+  bars: TimelineBar[];
+}
+
+export interface ReportExtras {
+  profiles?: Record<string, ScenarioProfile>;
+  failureClusters?: FailureCluster[];
+  strings?: string[];
+  baseline?: BaselineComparison;
+  timeline?: Timeline;
+}
+
 export interface FolderStructure {
   [key: string]: {
     features: CucumberFeature[];
@@ -24,6 +24,18 @@ export const formatDuration = (duration?: number): string => {
   return ms < 1000 ? `${ms.toFixed(0)}ms` : `${(ms / 1000).toFixed(2)}s`;
 };
 
+export const formatBytes = (bytes?: number): string => {
+  if (bytes === undefined || bytes < 0) return 'n/a';
+  if (bytes < 1024) return `${bytes}B`;
+  if (bytes < 1024 * 1024) return `${(bytes / 1024).toFixed(1)}KB`;
+  if (bytes < 1024 * 1024 * 1024) return `${(bytes / (1024 * 1024)).toFixed(1)}MB`;
+  return `${(bytes / (1024 * 1024 * 1024)).toFixed(2)}GB`;
+};
+
+// Key used by the Java plugin for per-scenario data: "<feature uri>:<scenario line>"
+export const getScenarioKey = (feature: CucumberFeature, scenario: CucumberScenario): string =>
+  `${feature.uri}:${scenario.line}`;
+
 interface FeatureWithPath extends CucumberFeature {
   fileName: string;
   fullPath: string;
@@ -102,6 +114,18 @@ export const buildFolderStructure = (features: CucumberReport): FolderStructure
   return folderStructure;
 };
 
+// Adds the folders and features of `added` to `structure` without rebuilding the features already in it
+export const mergeFolderStructures = (structure: FolderStructure, added: FolderStructure): FolderStructure => {
+  const merged: FolderStructure = { ...structure };
+  Object.entries(added).forEach(([key, value]) => {
+    const existing = merged[key];
+    merged[key] = existing
+      ? { features: existing.features.concat(value.features), subfolders: { ...existing.subfolders, ...value.subfolders } }
+      : value;
+  });
+  return merged;
+};
+
 export const filterScenarios = (
   feature: CucumberFeature, 
   searchTerm: string, 
@@ -226,6 +250,28 @@ export const calculateStats = (reportData: CucumberReport): ReportStats => {
   };
 };
 
+// Stats of two disjoint sets of features, e.g. the report so far and features that just streamed in
+export const mergeStats = (stats: ReportStats, added: ReportStats): ReportStats => {
+  const totalScenarios = stats.totalScenarios + added.totalScenarios;
+  const passedScenarios = stats.passedScenarios + added.passedScenarios;
+  return {
+    totalFeatures: stats.totalFeatures + added.totalFeatures,
+    totalScenarios,
+    totalSteps: stats.totalSteps + added.totalSteps,
+    passedFeatures: stats.passedFeatures + added.passedFeatures,
+    failedFeatures: stats.failedFeatures + added.failedFeatures,
+    skippedFeatures: stats.skippedFeatures + added.skippedFeatures,
+    passedScenarios,
+    failedScenarios: stats.failedScenarios + added.failedScenarios,
+    skippedScenarios: stats.skippedScenarios + added.skippedScenarios,
+    passedSteps: stats.passedSteps + added.passedSteps,
+    failedSteps: stats.failedSteps + added.failedSteps,
+    skippedSteps: stats.skippedSteps + added.skippedSteps,
+    totalDuration: stats.totalDuration + added.totalDuration,
+    passRate: totalScenarios > 0 ? (passedScenarios / totalScenarios) * 100 : 0
+  };
+};
+
 export const checkFolderHasMatches = (
   folderData: { features: CucumberFeature[]; subfolders: Record<string, any> }, 
   searchTerm: string, 
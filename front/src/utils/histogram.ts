@@ -0,0 +1,52 @@
+// Fixed log2 duration buckets filled with typed arrays, so that analytics over millions of steps
+// keep a few counters instead of an array of every duration
+
+export const HISTOGRAM_BUCKETS = 33;
+
+export interface DurationHistogram {
+  // counts[i] holds durations of [2^i, 2^(i+1)) microseconds; bucket 0 also holds anything shorter
+  counts: Uint32Array;
+  count: number;
+  total: number;
+  min: number;
+  max: number;
+}
+
+export const createHistogram = (): DurationHistogram => ({
+  counts: new Uint32Array(HISTOGRAM_BUCKETS),
+  count: 0,
+  total: 0,
+  min: 0,
+  max: 0
+});
+
+export const bucketOf = (nanos: number): number => {
+  const micros = nanos / 1000;
+  return micros < 2 ? 0 : Math.min(HISTOGRAM_BUCKETS - 1, Math.floor(Math.log2(micros)));
+};
+
+// Lower bound of a bucket in nanoseconds
+export const bucketStart = (bucket: number): number => (bucket === 0 ? 0 : 2 ** bucket * 1000);
+
+export const addDuration = (histogram: DurationHistogram, nanos: number): void => {
+  histogram.counts[bucketOf(nanos)]++;
+  histogram.min = histogram.count === 0 ? nanos : Math.min(histogram.min, nanos);
+  histogram.max = Math.max(histogram.max, nanos);
+  histogram.count++;
+  histogram.total += nanos;
+};
+
+// First and last bucket holding anything across the histograms, or null when all are empty
+export const occupiedRange = (...histograms: DurationHistogram[]): [number, number] | null => {
+  let first = HISTOGRAM_BUCKETS;
+  let last = -1;
+  histograms.forEach(histogram => {
+    histogram.counts.forEach((count, bucket) => {
+      if (count > 0) {
+        first = Math.min(first, bucket);
+        last = Math.max(last, bucket);
+      }
+    });
+  });
+  return last < 0 ? null : [first, last];
+};
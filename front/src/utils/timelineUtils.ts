@@ -0,0 +1,111 @@
+// Timeline data held in typed arrays, so that 100k bars cost a few flat buffers instead of
+// 100k objects, plus the per-lane indices and utilization histogram the canvas views draw from
+
+import type { Timeline } from '../types/cucumber';
+
+export const TIMELINE_STATUSES = ['passed', 'failed', 'pending', 'skipped', 'undefined'];
+
+export interface TimelineData {
+  threads: string[];
+  keys: string[];
+  starts: Float64Array;
+  ends: Float64Array;
+  lanes: Uint32Array;
+  statuses: Uint8Array;
+  span: number;
+  // Bar indices per lane, sorted by start, for hit testing
+  byLane: Uint32Array[];
+}
+
+const statusIndex = (status: string): number => {
+  const index = TIMELINE_STATUSES.indexOf(status);
+  return index < 0 ? TIMELINE_STATUSES.length - 1 : index;
+};
+
+export const decodeTimeline = (timeline: Timeline): TimelineData => {
+  const count = timeline.bars.length;
+  const starts = new Float64Array(count);
+  const ends = new Float64Array(count);
+  const lanes = new Uint32Array(count);
+  const statuses = new Uint8Array(count);
+  const keys = new Array<string>(count);
+  const laneSizes = new Uint32Array(timeline.threads.length);
+  let span = 0;
+  timeline.bars.forEach(([start, end, thread, status, key], index) => {
+    starts[index] = start;
+    ends[index] = end;
+    lanes[index] = thread;
+    statuses[index] = statusIndex(status);
+    keys[index] = key;
+    laneSizes[thread]++;
+    span = Math.max(span, end);
+  });
+
+  const byLane = Array.from(laneSizes, size => new Uint32Array(size));
+  const filled = new Uint32Array(timeline.threads.length);
+  for (let index = 0; index < count; index++) {
+    byLane[lanes[index]][filled[lanes[index]]++] = index;
+  }
+  byLane.forEach(lane => lane.sort((a, b) => starts[a] - starts[b]));
+
+  return { threads: timeline.threads, keys, starts, ends, lanes, statuses, span, byLane };
+};
+
+// Index of the bar running on lane at time, or -1
+export const findBar = (data: TimelineData, lane: number, time: number): number => {
+  const bars = data.byLane[lane];
+  if (!bars) return -1;
+  let low = 0;
+  let high = bars.length - 1;
+  let found = -1;
+  while (low <= high) {
+    const middle = (low + high) >> 1;
+    if (data.starts[bars[middle]] <= time) {
+      found = middle;
+      low = middle + 1;
+    } else {
+      high = middle - 1;
+    }
+  }
+  return found >= 0 && data.ends[bars[found]] >= time ? bars[found] : -1;
+};
+
+// Share of the threads busy in each of `buckets` equal slices of the run, between 0 and 1.
+// Linear in bars plus buckets: fully covered buckets go through a difference array.
+export const utilization = (data: TimelineData, buckets: number): Float64Array => {
+  const busy = new Float64Array(buckets);
+  const threads = data.threads.length;
+  if (data.span <= 0 || threads === 0 || buckets <= 0) return busy;
+  const width = data.span / buckets;
+  const covered = new Float64Array(buckets + 1);
+  for (let index = 0; index < data.starts.length; index++) {
+    const start = data.starts[index];
+    const end = data.ends[index];
+    const first = Math.min(buckets - 1, Math.floor(start / width));
+    const last = Math.min(buckets - 1, Math.floor(end / width));
+    if (first === last) {
+      busy[first] += end - start;
+      continue;
+    }
+    busy[first] += (first + 1) * width - start;
+    busy[last] += end - last * width;
+    covered[first + 1] += 1;
+    covered[last] -= 1;
+  }
+  let running = 0;
+  for (let bucket = 0; bucket < buckets; bucket++) {
+    running += covered[bucket];
+    busy[bucket] = Math.min(1, (busy[bucket] + running * width) / (width * threads));
+  }
+  return busy;
+};
+
+// Busy thread time over available thread time for the whole run
+export const parallelEfficiency = (data: TimelineData): number => {
+  if (data.span <= 0 || data.threads.length === 0) return 0;
+  let busy = 0;
+  for (let index = 0; index < data.starts.length; index++) {
+    busy += data.ends[index] - data.starts[index];
+  }
+  return busy / (data.span * data.threads.length);
+};
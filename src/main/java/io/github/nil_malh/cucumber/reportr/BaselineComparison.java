@@ -0,0 +1,130 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the run being reported with a baseline Cucumber JSON, joining scenarios by {@code id}.
+ * <p>
+ * The baseline is streamed once, one feature at a time, into a hash index holding only the status
+ * and duration of each scenario. The run itself is compared while it streams into the report, so
+ * neither document is ever held in memory as a whole. Changed scenarios get a {@code baseline}
+ * object in the report data; new failures, fixes and slowdowns are listed in the {@code baseline}
+ * extras section. Scenarios sharing an id (same name twice in a feature) are matched in order.
+ */
+final class BaselineComparison implements FeatureTransformer, ReportSection {
+    private final String baselineName;
+    private final Map<String, Baseline> index;
+    private final double slowdownFactor;
+    private final long minSlowdown;
+    private final Map<String, Integer> occurrences = new HashMap<>();
+    private final List<Change> newFailures = new ArrayList<>();
+    private final List<Change> fixed = new ArrayList<>();
+    private final List<Change> slower = new ArrayList<>();
+    private int matched;
+    private int added;
+
+    private BaselineComparison(String baselineName, Map<String, Baseline> index, ReportOptions options) {
+        this.baselineName = baselineName;
+        this.index = index;
+        this.slowdownFactor = 1 + options.getBaselineSlowdownPercent() / 100.0;
+        this.minSlowdown = options.getBaselineMinSlowdown().toNanos();
+    }
+
+    static BaselineComparison load(ObjectMapper mapper, File baselineFile, ReportOptions options) throws IOException {
+        Map<String, Baseline> index = new HashMap<>();
+        Map<String, Integer> occurrences = new HashMap<>();
+        try (JsonParser parser = mapper.getFactory().createParser(baselineFile)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Baseline is not a Cucumber JSON report: " + baselineFile.getAbsolutePath());
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                JsonNode feature = mapper.readTree(parser);
+                if (feature instanceof ObjectNode) {
+                    ScenarioResult.forEach((ObjectNode) feature, (result, element) ->
+                            index.put(joinKey(occurrences, result.id()), new Baseline(result.status(), result.duration())));
+                }
+            }
+        }
+        return new BaselineComparison(baselineFile.getName(), index, options);
+    }
+
+    @Override
+    public void transform(ObjectNode feature) {
+        ScenarioResult.forEach(feature, (result, element) -> {
+            Baseline baseline = index.remove(joinKey(occurrences, result.id()));
+            if (baseline == null) {
+                added++;
+                return;
+            }
+            matched++;
+            Change change = new Change(result.id(), result.uri(), result.line(), result.name(),
+                    baseline.status(), result.status(), baseline.duration(), result.duration());
+            boolean wasFailed = ScenarioResult.isFailed(baseline.status());
+            if (result.isFailed() && !wasFailed) {
+                newFailures.add(change);
+            } else if (!result.isFailed() && wasFailed) {
+                fixed.add(change);
+            } else if (result.duration() > baseline.duration() * slowdownFactor
+                    && result.duration() - baseline.duration() >= minSlowdown) {
+                slower.add(change);
+            } else {
+                return;
+            }
+            element.putObject("baseline").put("status", baseline.status()).put("duration", baseline.duration());
+        });
+    }
+
+    @Override
+    public void write(JsonGenerator generator) throws IOException {
+        slower.sort(Comparator.comparingLong((Change change) -> change.duration() - change.baselineDuration()).reversed());
+        generator.writeStartObject();
+        generator.writeStringField("name", baselineName);
+        generator.writeNumberField("matched", matched);
+        generator.writeNumberField("added", added);
+        generator.writeNumberField("removed", index.size());
+        writeChanges(generator, "new_failures", newFailures);
+        writeChanges(generator, "fixed", fixed);
+        writeChanges(generator, "slower", slower);
+        generator.writeEndObject();
+    }
+
+    private static void writeChanges(JsonGenerator generator, String field, List<Change> changes) throws IOException {
+        generator.writeArrayFieldStart(field);
+        for (Change change : changes) {
+            generator.writeObject(change);
+        }
+        generator.writeEndArray();
+    }
+
+    private static String joinKey(Map<String, Integer> occurrences, String id) {
+        int occurrence = occurrences.merge(id, 1, Integer::sum);
+        return occurrence == 1 ? id : id + "#" + occurrence;
+    }
+
+    private record Baseline(String status, long duration) {
+    }
+
+    record Change(@JsonProperty("id") String id,
+                  @JsonProperty("uri") String uri,
+                  @JsonProperty("line") int line,
+                  @JsonProperty("name") String name,
+                  @JsonProperty("baseline_status") String baselineStatus,
+                  @JsonProperty("status") String status,
+                  @JsonProperty("baseline_duration") long baselineDuration,
+                  @JsonProperty("duration") long duration) {
+    }
+}
@@ -0,0 +1,347 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cucumber results held in flat primitive arrays, for aggregating large runs in the JVM without
+ * keeping a tree of maps per step. Names and locations are ids into one string table, statuses are
+ * bytes, durations (nanoseconds) are longs, and the feature, scenario and step levels are linked by
+ * offset arrays: the scenarios of feature {@code f} are {@code firstScenario(f)} up to
+ * {@code scenarioEnd(f)}, and likewise for steps. The aggregations below are single passes over
+ * these arrays that allocate only their result.
+ * <p>
+ * As in {@link ScenarioResult}, a background counts towards the scenario that follows it, and its
+ * steps are listed first among that scenario's steps. Hooks count towards the scenario's status and
+ * duration but are not steps.
+ */
+public final class CompactReport {
+    /** Statuses in the order of their codes; unknown statuses are read as {@code undefined}. */
+    static final List<String> STATUSES = List.of("passed", "failed", "skipped", "pending", "undefined", "ambiguous", "unused");
+    private static final byte UNDEFINED = (byte) STATUSES.indexOf("undefined");
+
+    private final String[] strings;
+    private final int featureCount;
+    private final int[] featureName;
+    private final int[] featureUri;
+    private final int[] featureScenarios;
+    private final int scenarioCount;
+    private final int[] scenarioName;
+    private final int[] scenarioLine;
+    private final byte[] scenarioStatus;
+    private final long[] scenarioDuration;
+    private final int[] scenarioSteps;
+    private final int stepCount;
+    private final int[] stepName;
+    private final int[] stepLocation;
+    private final byte[] stepStatus;
+    private final long[] stepDuration;
+
+    private CompactReport(Builder builder) {
+        this.strings = builder.strings.toArray(new String[0]);
+        this.featureCount = builder.featureCount;
+        this.featureName = Arrays.copyOf(builder.featureName, featureCount);
+        this.featureUri = Arrays.copyOf(builder.featureUri, featureCount);
+        this.featureScenarios = Arrays.copyOf(builder.featureScenarios, featureCount + 1);
+        this.scenarioCount = builder.scenarioCount;
+        this.scenarioName = Arrays.copyOf(builder.scenarioName, scenarioCount);
+        this.scenarioLine = Arrays.copyOf(builder.scenarioLine, scenarioCount);
+        this.scenarioStatus = Arrays.copyOf(builder.scenarioStatus, scenarioCount);
+        this.scenarioDuration = Arrays.copyOf(builder.scenarioDuration, scenarioCount);
+        this.scenarioSteps = Arrays.copyOf(builder.scenarioSteps, scenarioCount + 1);
+        this.stepCount = builder.stepCount;
+        this.stepName = Arrays.copyOf(builder.stepName, stepCount);
+        this.stepLocation = Arrays.copyOf(builder.stepLocation, stepCount);
+        this.stepStatus = Arrays.copyOf(builder.stepStatus, stepCount);
+        this.stepDuration = Arrays.copyOf(builder.stepDuration, stepCount);
+    }
+
+    /** Reads a Cucumber JSON report one feature at a time. */
+    public static CompactReport read(File jsonFile) throws IOException {
+        return read(Json.MAPPER, jsonFile);
+    }
+
+    static CompactReport read(ObjectMapper mapper, File jsonFile) throws IOException {
+        Builder builder = new Builder();
+        try (JsonParser parser = mapper.getFactory().createParser(jsonFile)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Not a Cucumber JSON report: " + jsonFile.getAbsolutePath());
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                JsonNode feature = mapper.readTree(parser);
+                if (feature instanceof ObjectNode) {
+                    builder.transform((ObjectNode) feature);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    public int featureCount() {
+        return featureCount;
+    }
+
+    public int scenarioCount() {
+        return scenarioCount;
+    }
+
+    public int stepCount() {
+        return stepCount;
+    }
+
+    public String featureName(int feature) {
+        return strings[featureName[feature]];
+    }
+
+    public String featureUri(int feature) {
+        return strings[featureUri[feature]];
+    }
+
+    public int firstScenario(int feature) {
+        return featureScenarios[feature];
+    }
+
+    /** One past the last scenario of {@code feature}. */
+    public int scenarioEnd(int feature) {
+        return featureScenarios[feature + 1];
+    }
+
+    public String scenarioName(int scenario) {
+        return strings[scenarioName[scenario]];
+    }
+
+    /** The scenario's {@code uri:line}, as used by rerun files and the {@link DurationModel}. */
+    public String scenarioKey(int scenario) {
+        int feature = Arrays.binarySearch(featureScenarios, scenario);
+        // Features without scenarios share an offset with the next one
+        while (feature >= 0 && feature + 1 < featureScenarios.length && featureScenarios[feature + 1] == scenario) {
+            feature++;
+        }
+        return Locations.key(featureUri(feature < 0 ? -feature - 2 : feature), scenarioLine[scenario]);
+    }
+
+    public String scenarioStatus(int scenario) {
+        return STATUSES.get(scenarioStatus[scenario]);
+    }
+
+    public long scenarioDuration(int scenario) {
+        return scenarioDuration[scenario];
+    }
+
+    public int firstStep(int scenario) {
+        return scenarioSteps[scenario];
+    }
+
+    /** One past the last step of {@code scenario}. */
+    public int stepEnd(int scenario) {
+        return scenarioSteps[scenario + 1];
+    }
+
+    public String stepName(int step) {
+        return strings[stepName[step]];
+    }
+
+    /** The glue location the step matched, or {@code null} when it matched none. */
+    public String stepLocation(int step) {
+        return stepLocation[step] < 0 ? null : strings[stepLocation[step]];
+    }
+
+    public String stepStatus(int step) {
+        return STATUSES.get(stepStatus[step]);
+    }
+
+    public long stepDuration(int step) {
+        return stepDuration[step];
+    }
+
+    public long totalDuration() {
+        long total = 0;
+        for (int scenario = 0; scenario < scenarioCount; scenario++) {
+            total += scenarioDuration[scenario];
+        }
+        return total;
+    }
+
+    public long featureDuration(int feature) {
+        long total = 0;
+        for (int scenario = featureScenarios[feature]; scenario < featureScenarios[feature + 1]; scenario++) {
+            total += scenarioDuration[scenario];
+        }
+        return total;
+    }
+
+    /** Scenarios per status, from passed to unused, leaving out statuses no scenario has. */
+    public Map<String, Integer> scenarioStatusCounts() {
+        return statusCounts(scenarioStatus, scenarioCount);
+    }
+
+    /** Steps per status, from passed to unused, leaving out statuses no step has. */
+    public Map<String, Integer> stepStatusCounts() {
+        return statusCounts(stepStatus, stepCount);
+    }
+
+    /** Time spent in each step definition, slowest in total first. Undefined steps are left out. */
+    public List<StepDefinitionTiming> stepDefinitionTimings() {
+        int[] counts = new int[strings.length];
+        long[] totals = new long[strings.length];
+        long[] maxima = new long[strings.length];
+        for (int step = 0; step < stepCount; step++) {
+            int location = stepLocation[step];
+            if (location >= 0) {
+                counts[location]++;
+                totals[location] += stepDuration[step];
+                maxima[location] = Math.max(maxima[location], stepDuration[step]);
+            }
+        }
+        List<StepDefinitionTiming> timings = new ArrayList<>();
+        for (int location = 0; location < strings.length; location++) {
+            if (counts[location] > 0) {
+                timings.add(new StepDefinitionTiming(strings[location], counts[location], totals[location], maxima[location]));
+            }
+        }
+        timings.sort(Comparator.comparingLong(StepDefinitionTiming::total).reversed()
+                .thenComparing(StepDefinitionTiming::location));
+        return timings;
+    }
+
+    private static Map<String, Integer> statusCounts(byte[] statuses, int count) {
+        int[] counts = new int[STATUSES.size()];
+        for (int i = 0; i < count; i++) {
+            counts[statuses[i]]++;
+        }
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (int status = 0; status < counts.length; status++) {
+            if (counts[status] > 0) {
+                result.put(STATUSES.get(status), counts[status]);
+            }
+        }
+        return result;
+    }
+
+    private static byte status(JsonNode result) {
+        int code = STATUSES.indexOf(result.path("status").asText());
+        return code < 0 ? UNDEFINED : (byte) code;
+    }
+
+    /** Calls made by one step definition and the time they took, in nanoseconds. */
+    public record StepDefinitionTiming(String location, int count, long total, long max) {
+        public long mean() {
+            return total / count;
+        }
+    }
+
+    /** Collects features as they stream past; usable as a transformer of the report data. */
+    static final class Builder implements FeatureTransformer {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+        private int featureCount;
+        private int[] featureName = new int[16];
+        private int[] featureUri = new int[16];
+        private int[] featureScenarios = new int[17];
+        private int scenarioCount;
+        private int[] scenarioName = new int[64];
+        private int[] scenarioLine = new int[64];
+        private byte[] scenarioStatus = new byte[64];
+        private long[] scenarioDuration = new long[64];
+        private int[] scenarioSteps = new int[65];
+        private int stepCount;
+        private int[] stepName = new int[256];
+        private int[] stepLocation = new int[256];
+        private byte[] stepStatus = new byte[256];
+        private long[] stepDuration = new long[256];
+
+        @Override
+        public void transform(ObjectNode feature) {
+            if (featureCount == featureName.length) {
+                featureName = Arrays.copyOf(featureName, featureCount * 2);
+                featureUri = Arrays.copyOf(featureUri, featureCount * 2);
+                featureScenarios = Arrays.copyOf(featureScenarios, featureCount * 2 + 1);
+            }
+            featureName[featureCount] = id(feature.path("name").asText());
+            featureUri[featureCount] = id(feature.path("uri").asText());
+            Map<JsonNode, ScenarioResult> results = new IdentityHashMap<>();
+            ScenarioResult.forEach(feature, (result, element) -> results.put(element, result));
+            JsonNode background = null;
+            for (JsonNode element : feature.path("elements")) {
+                ScenarioResult result = results.get(element);
+                if (result == null) {
+                    background = "background".equals(element.path("type").asText()) ? element : background;
+                    continue;
+                }
+                addScenario(result);
+                if (background != null) {
+                    addSteps(background);
+                    background = null;
+                }
+                addSteps(element);
+                scenarioSteps[scenarioCount] = stepCount;
+            }
+            featureCount++;
+            featureScenarios[featureCount] = scenarioCount;
+        }
+
+        CompactReport build() {
+            return new CompactReport(this);
+        }
+
+        private void addScenario(ScenarioResult result) {
+            if (scenarioCount == scenarioName.length) {
+                int capacity = scenarioCount * 2;
+                scenarioName = Arrays.copyOf(scenarioName, capacity);
+                scenarioLine = Arrays.copyOf(scenarioLine, capacity);
+                scenarioStatus = Arrays.copyOf(scenarioStatus, capacity);
+                scenarioDuration = Arrays.copyOf(scenarioDuration, capacity);
+                scenarioSteps = Arrays.copyOf(scenarioSteps, capacity + 1);
+            }
+            scenarioName[scenarioCount] = id(result.name());
+            scenarioLine[scenarioCount] = result.line();
+            int code = STATUSES.indexOf(result.status());
+            scenarioStatus[scenarioCount] = code < 0 ? UNDEFINED : (byte) code;
+            scenarioDuration[scenarioCount] = result.duration();
+            scenarioSteps[scenarioCount] = stepCount;
+            scenarioCount++;
+        }
+
+        private void addSteps(JsonNode element) {
+            for (JsonNode step : element.path("steps")) {
+                if (stepCount == stepName.length) {
+                    int capacity = stepCount * 2;
+                    stepName = Arrays.copyOf(stepName, capacity);
+                    stepLocation = Arrays.copyOf(stepLocation, capacity);
+                    stepStatus = Arrays.copyOf(stepStatus, capacity);
+                    stepDuration = Arrays.copyOf(stepDuration, capacity);
+                }
+                JsonNode location = step.path("match").path("location");
+                stepName[stepCount] = id(step.path("name").asText());
+                stepLocation[stepCount] = location.isTextual() ? id(location.asText()) : -1;
+                stepStatus[stepCount] = status(step.path("result"));
+                stepDuration[stepCount] = step.path("result").path("duration").asLong();
+                stepCount++;
+            }
+        }
+
+        private int id(String string) {
+            Integer id = ids.get(string);
+            if (id == null) {
+                id = strings.size();
+                ids.put(string, id);
+                strings.add(string);
+            }
+            return id;
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package io.github.nil_malh.cucumber.reportr;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.cucumber.core.plugin.JsonFormatter;
 import io.cucumber.plugin.ConcurrentEventListener;
 import io.cucumber.plugin.EventListener;
@@ -11,16 +16,32 @@ import io.cucumber.plugin.event.TestRunFinished;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static java.io.File.createTempFile;
 
 public class Core implements Plugin, ConcurrentEventListener, EventListener {
     private static final org.slf4j.Logger LOGGER = org.slf4j.LoggerFactory.getLogger(Core.class);
+    private static final String DATA_PLACEHOLDER = "/* CUCUMBER_REPORT_DATA_PLACEHOLDER */";
+    private static final String EXTRAS_PLACEHOLDER = "/* CUCUMBER_REPORT_EXTRAS_PLACEHOLDER */ null";
 
     private final File outputDir;
-    private final File jsonFile;
+    /** The JSON the formatter writes; only created on first use when Core picks a temporary file itself. */
+    private final Supplier<File> jsonFile;
     private final ConcurrentEventListener delegateJsonEventListener;
+    private final ReportOptions options;
+    /** Feeds finished test cases to the report sinks; null when no option needs event data. */
+    private final TestCaseCollector collector;
+    /** Finished test cases, kept within the configured memory budget; null together with {@link #collector}. */
+    private final SpillingRecordStore records;
     /** True when report generation is triggered via the stream close hook. */
     private final boolean reportTriggeredOnClose;
     /** The FilterOutputStream wrapping jsonOutputStream, exposed package-privately for testing. */
@@ -31,7 +52,17 @@ public class Core implements Plugin, ConcurrentEventListener, EventListener {
     }
 
     public Core(File outputDir) throws Exception {
-        this(outputDir, createTempFileDeletedOnExit());
+        this(outputDir, new LazyTempFileOutputStream(), ReportOptions.fromSystemProperties());
+    }
+
+    private Core(File outputDir, LazyTempFileOutputStream jsonOutputStream, ReportOptions options) {
+        this(outputDir, () -> {
+            try {
+                return jsonOutputStream.file();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, jsonOutputStream, options);
     }
 
     protected Core(File outputDir, final File jsonFile) throws FileNotFoundException {
@@ -39,16 +70,27 @@ public class Core implements Plugin, ConcurrentEventListener, EventListener {
     }
 
     protected Core(File outputDir, File jsonFile, OutputStream jsonOutputStream) {
+        this(outputDir, jsonFile, jsonOutputStream, ReportOptions.fromSystemProperties());
+    }
+
+    protected Core(File outputDir, File jsonFile, OutputStream jsonOutputStream, ReportOptions options) {
+        this(outputDir, () -> jsonFile, jsonOutputStream, options);
+        LOGGER.info("Writing JSON file to {}", jsonFile.getAbsolutePath());
+    }
+
+    private Core(File outputDir, Supplier<File> jsonFile, OutputStream jsonOutputStream, ReportOptions options) {
         this.outputDir = outputDir;
         this.jsonFile = jsonFile;
+        this.options = options;
+        this.records = createRecordStore(options);
+        this.collector = createCollector();
         this.reportTriggeredOnClose = true;
-        LOGGER.info("Writing JSON file to {}", jsonFile.getAbsolutePath());
         this.triggeringStream = new FilterOutputStream(jsonOutputStream) {
             @Override
             public void close() throws IOException {
                 super.close();
                 LOGGER.info("JsonFormatter closed output stream, generating report...");
-                generatePrettyReport(jsonFile, outputDir);
+                generateReport();
             }
         };
         this.delegateJsonEventListener = new JsonFormatter(triggeringStream);
@@ -58,7 +100,10 @@ public class Core implements Plugin, ConcurrentEventListener, EventListener {
     @Deprecated
     protected Core(File outputDir, File jsonFile, ConcurrentEventListener delegateJsonEventListener) {
         this.outputDir = outputDir;
-        this.jsonFile = jsonFile;
+        this.jsonFile = () -> jsonFile;
+        this.options = ReportOptions.fromSystemProperties();
+        this.records = createRecordStore(options);
+        this.collector = createCollector();
         this.reportTriggeredOnClose = false;
         this.triggeringStream = null;
         this.delegateJsonEventListener = delegateJsonEventListener;
@@ -80,29 +125,118 @@ public class Core implements Plugin, ConcurrentEventListener, EventListener {
     @Override
     public void setEventPublisher(EventPublisher eventPublisher) {
         delegateJsonEventListener.setEventPublisher(eventPublisher);
+        if (collector != null) {
+            collector.setEventPublisher(eventPublisher);
+        }
         if (!reportTriggeredOnClose) {
             // Deprecated constructor: generate report on TestRunFinished
-            eventPublisher.registerHandlerFor(TestRunFinished.class, unused -> generatePrettyReport(jsonFile, outputDir));
+            eventPublisher.registerHandlerFor(TestRunFinished.class, unused -> generateReport());
         } else {
             // Stream-based: report triggers on stream close; register no-op to satisfy event wiring contract
             eventPublisher.registerHandlerFor(TestRunFinished.class, unused -> {});
         }
     }
 
+    private static SpillingRecordStore createRecordStore(ReportOptions options) {
+        if (!options.isJfrEnabled() && !options.isTimelineEnabled()) {
+            return null;
+        }
+        return new SpillingRecordStore(options.getMemoryBudget());
+    }
+
+    private TestCaseCollector createCollector() {
+        if (records == null) {
+            return null;
+        }
+        ScenarioProfiler profiler = options.isJfrEnabled() ? new ScenarioProfiler() : null;
+        return new TestCaseCollector(options.getQueueCapacity(), profiler, records::add);
+    }
+
+    private void generateReport() {
+        if (collector != null) {
+            // All test cases have finished by now; wait for the writer thread to catch up
+            collector.close();
+        }
+        Map<String, Object> extras = new LinkedHashMap<>();
+        if (options.isJfrEnabled()) {
+            extras.put("profiles", (ReportSection) this::writeProfiles);
+        }
+        if (options.isTimelineEnabled()) {
+            extras.put("timeline", new TimelineSection(records));
+        }
+        try {
+            generatePrettyReport(jsonFile.get(), outputDir, options, extras);
+        } finally {
+            closeRecords();
+        }
+    }
+
+    private void writeProfiles(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        records.forEachInFeatureOrder(record -> {
+            if (record.profile() != null) {
+                generator.writeFieldName(record.key());
+                generator.writeObject(record.profile());
+            }
+        });
+        generator.writeEndObject();
+    }
+
+    private void closeRecords() {
+        if (records == null) {
+            return;
+        }
+        try {
+            records.close();
+        } catch (IOException e) {
+            LOGGER.warn("Could not delete spilled test case results", e);
+        }
+    }
+
     public static void generatePrettyReport(File jsonFile, File outputDir) {
+        generatePrettyReport(jsonFile, outputDir, ReportOptions.fromSystemProperties(), Map.of());
+    }
+
+    /**
+     * Generates the report for {@code jsonFile} together with its comparison against an earlier
+     * run's {@code baselineJsonFile}. Other options are read from system properties.
+     */
+    public static void generatePrettyReport(File jsonFile, File outputDir, File baselineJsonFile) {
+        Properties properties = new Properties();
+        properties.putAll(System.getProperties());
+        properties.setProperty(ReportOptions.BASELINE, baselineJsonFile.getPath());
+        generatePrettyReport(jsonFile, outputDir, ReportOptions.from(properties), Map.of());
+    }
+
+    /**
+     * Generates the report and injects {@code extras} as {@code window.CUCUMBER_REPORT_EXTRAS}, one
+     * entry per optional report section (e.g. {@code profiles}). Templates without the extras
+     * placeholder still get the plain report.
+     * <p>
+     * The JSON report is streamed into the HTML one feature at a time, so only the largest single
+     * feature has to fit in memory. The report is written to a temporary file first and only moved
+     * into place once complete, so invalid input never leaves a truncated report behind.
+     * {@code options} select the transformations applied to each feature on the way, such as the
+     * attachment size policies, failure clustering, the baseline comparison and outline compaction.
+     */
+    public static void generatePrettyReport(File jsonFile, File outputDir, ReportOptions options, Map<String, ?> extras) {
+        generatePrettyReport(jsonFile, outputDir, options, extras, () -> Core.class.getResourceAsStream("/index.html"));
+    }
+
+    /** Same as above with the HTML template read from {@code template} instead of the bundled one. */
+    static void generatePrettyReport(File jsonFile, File outputDir, ReportOptions options, Map<String, ?> extras,
+                                     Supplier<InputStream> template) {
+        File tempReportFile = null;
+        List<NdjsonFile> ndjsonFiles = new ArrayList<>();
         try {
             if (!jsonFile.exists() || jsonFile.length() == 0) {
                 LOGGER.error("JSON report file not found or is empty: {}", jsonFile.getAbsolutePath());
                 return;
             }
+            ObjectMapper mapper = Json.MAPPER;
 
-            // 1. Read and sanitize JSON report data
-            String jsonReport = Files.readString(jsonFile.toPath(), StandardCharsets.UTF_8);
-            ObjectMapper mapper = new ObjectMapper();
-            String sanitizedJson = mapper.writeValueAsString(mapper.readValue(jsonReport, Object.class));
-
-            // 2. Read HTML template
-            InputStream templateStream = Core.class.getResourceAsStream("/index.html");
+            // 1. Read HTML template
+            InputStream templateStream = template.get();
             if (templateStream == null) {
                 LOGGER.error("Could not find report template in resources: /index.html.");
                 return;
@@ -112,27 +246,200 @@ public class Core implements Plugin, ConcurrentEventListener, EventListener {
                 htmlTemplate = reader.lines().collect(Collectors.joining(System.lineSeparator()));
             }
 
-            // 3. Inject JSON into template
-            String finalHtml = htmlTemplate.replace("/* CUCUMBER_REPORT_DATA_PLACEHOLDER */", sanitizedJson);
-            if (finalHtml.equals(htmlTemplate)) {
-                LOGGER.error("Placeholder '/* CUCUMBER_REPORT_DATA_PLACEHOLDER */' not found in template.");
+            // 2. Locate where the JSON data and extras go
+            int dataAt = htmlTemplate.indexOf(DATA_PLACEHOLDER);
+            if (dataAt < 0) {
+                LOGGER.error("Placeholder '{}' not found in template.", DATA_PLACEHOLDER);
                 return;
             }
+            int extrasAt = htmlTemplate.indexOf(EXTRAS_PLACEHOLDER);
+            // Sections filled while the data streams past are only complete when the extras come after it
+            boolean extrasAfterData = extrasAt > dataAt;
+
+            List<FeatureTransformer> transformers = new ArrayList<>();
+            EmbeddingPolicy embeddingPolicy = new EmbeddingPolicy(options);
+            if (embeddingPolicy.isActive()) {
+                transformers.add(embeddingPolicy);
+            }
+            Map<String, Object> sections = new LinkedHashMap<>(extras);
+            if (options.isFailureClustering()) {
+                // Filled while the data streams past, so it is complete by the time the extras are written
+                FailureClusterer clusterer = new FailureClusterer(options.isFailureDeduplication());
+                transformers.add(clusterer);
+                if (extrasAfterData) {
+                    sections.put("failureClusters", clusterer);
+                } else {
+                    LOGGER.warn("Template has no extras placeholder after the report data, leaving out failure clusters.");
+                }
+            }
+            if (options.getBaseline() != null) {
+                try {
+                    BaselineComparison comparison = BaselineComparison.load(mapper, options.getBaseline(), options);
+                    transformers.add(comparison);
+                    if (extrasAfterData) {
+                        sections.put("baseline", comparison);
+                    } else {
+                        LOGGER.warn("Template has no extras placeholder after the report data, leaving out the baseline comparison.");
+                    }
+                } catch (IOException e) {
+                    LOGGER.warn("Could not read baseline report {}, reporting without comparison.", options.getBaseline().getAbsolutePath(), e);
+                }
+            }
+            DurationModel durationModel = options.getDurationModel() == null ? null : loadDurationModel(options);
+            if (durationModel != null) {
+                DurationModel model = durationModel;
+                transformers.add(feature -> ScenarioResult.forEach(feature, (result, element) -> {
+                    if ("passed".equals(result.status())) {
+                        model.record(result.key(), result.duration());
+                    }
+                }));
+            }
+            TestImpactExport testImpact = null;
+            if (options.isRerunEnabled() || options.getShards() > 0) {
+                testImpact = new TestImpactExport(options.isRerunEnabled(), options.getShards(), durationModel);
+                transformers.add(testImpact);
+            }
+            // The NDJSON files hold plain report data, so they go before the encodings that need the extras to read
+            int ndjsonAt = transformers.size();
+            if (options.isOutlineCompaction()) {
+                transformers.add(new OutlineCompactor());
+            }
 
-            // 4. Write report
+            // 3. Inject the data, then the extras
+            List<Injection> injections = new ArrayList<>();
+            injections.add(new Injection(dataAt, DATA_PLACEHOLDER, generator -> writeReportData(mapper, jsonFile, transformers, generator)));
+            if (options.isStringDictionary()) {
+                // Runs last so it sees the final values, and needs the dictionary to land after the data
+                if (extrasAfterData) {
+                    StringDictionary dictionary = new StringDictionary();
+                    transformers.add(dictionary);
+                    sections.put("strings", dictionary);
+                } else {
+                    LOGGER.warn("Template has no extras placeholder after the report data, writing strings inline.");
+                }
+            }
+            if (extrasAt >= 0 && !sections.isEmpty()) {
+                injections.add(new Injection(extrasAt, EXTRAS_PLACEHOLDER, generator -> writeExtras(mapper, sections, generator)));
+            }
+            injections.sort(Comparator.comparingInt(Injection::at));
+
+            // 4. Stream template and data into the report
             if (!outputDir.exists() && !outputDir.mkdirs()) {
                 LOGGER.error("Could not create output directory: {}", outputDir.getAbsolutePath());
                 return;
             }
+            if (options.isDataNdjson()) {
+                ndjsonFiles.add(new NdjsonFeatureWriter(mapper, outputDir));
+            }
+            if (options.isResultsNdjson()) {
+                ndjsonFiles.add(new ResultRecordWriter(mapper, outputDir));
+            }
+            transformers.addAll(ndjsonAt, ndjsonFiles);
             File reportFile = new File(outputDir, "cucumber-pretty-report.html");
-            try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(reportFile), StandardCharsets.UTF_8))) {
-                writer.write(finalHtml);
+            tempReportFile = new File(outputDir, reportFile.getName() + ".tmp");
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tempReportFile), StandardCharsets.UTF_8))) {
+                int written = 0;
+                for (Injection injection : injections) {
+                    writer.write(htmlTemplate, written, injection.at() - written);
+                    try (JsonGenerator generator = mapper.getFactory().createGenerator(writer)) {
+                        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                        injection.content().write(generator);
+                    }
+                    written = injection.at() + injection.placeholder().length();
+                }
+                writer.write(htmlTemplate, written, htmlTemplate.length() - written);
             }
+            Files.move(tempReportFile.toPath(), reportFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            embeddingPolicy.logSummary();
 
             LOGGER.info("Cucumber pretty report generated at: {}", reportFile.getAbsolutePath());
+            for (NdjsonFile ndjsonFile : ndjsonFiles) {
+                try {
+                    ndjsonFile.commit();
+                } catch (IOException e) {
+                    LOGGER.warn("Could not write {}", ndjsonFile, e);
+                }
+            }
+            if (testImpact != null) {
+                try {
+                    testImpact.writeTo(mapper, outputDir);
+                } catch (IOException e) {
+                    LOGGER.warn("Could not write the rerun list and shard plan", e);
+                }
+            }
+            if (durationModel != null) {
+                try {
+                    durationModel.save(options.getDurationModel());
+                } catch (IOException e) {
+                    LOGGER.warn("Could not save scenario durations to {}", options.getDurationModel(), e);
+                }
+            }
 
-        } catch (IOException e) {
+        } catch (IOException | RuntimeException e) {
             LOGGER.error("Failed to generate cucumber pretty report", e);
+            if (tempReportFile != null && tempReportFile.exists() && !tempReportFile.delete()) {
+                LOGGER.warn("Could not delete incomplete report: {}", tempReportFile.getAbsolutePath());
+            }
+        } finally {
+            for (NdjsonFile ndjsonFile : ndjsonFiles) {
+                try {
+                    ndjsonFile.close();
+                } catch (IOException e) {
+                    LOGGER.warn("Could not delete incomplete {}", ndjsonFile, e);
+                }
+            }
+        }
+    }
+
+    private static DurationModel loadDurationModel(ReportOptions options) {
+        try {
+            return DurationModel.load(options.getDurationModel(), options.getDurationWeight());
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not read scenario durations from {}, starting afresh.", options.getDurationModel(), e);
+            return DurationModel.empty(options.getDurationWeight());
+        }
+    }
+
+    /** Copies the Cucumber JSON into the report, one top-level feature at a time, applying {@code transformers} to each. */
+    private static void writeReportData(ObjectMapper mapper, File jsonFile, List<FeatureTransformer> transformers,
+                                        JsonGenerator generator) throws IOException {
+        try (JsonParser parser = mapper.getFactory().createParser(jsonFile)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                throw new IOException("No JSON content in " + jsonFile.getAbsolutePath());
+            }
+            if (token != JsonToken.START_ARRAY) {
+                generator.copyCurrentStructure(parser);
+                return;
+            }
+            generator.writeStartArray();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                JsonNode feature = mapper.readTree(parser);
+                if (feature instanceof ObjectNode) {
+                    for (FeatureTransformer transformer : transformers) {
+                        transformer.transform((ObjectNode) feature);
+                    }
+                }
+                mapper.writeTree(generator, feature);
+            }
+            generator.writeEndArray();
         }
     }
-}
\ No newline at end of file
+
+    private static void writeExtras(ObjectMapper mapper, Map<String, ?> extras, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        for (Map.Entry<String, ?> entry : extras.entrySet()) {
+            generator.writeFieldName(entry.getKey());
+            if (entry.getValue() instanceof ReportSection) {
+                ((ReportSection) entry.getValue()).write(generator);
+            } else {
+                mapper.writeValue(generator, entry.getValue());
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    /** A placeholder in the template and the JSON that replaces it. */
+    private record Injection(int at, String placeholder, ReportSection content) {
+    }
+}
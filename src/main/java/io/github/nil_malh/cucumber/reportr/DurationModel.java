@@ -0,0 +1,197 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Expected duration of each scenario, keyed by {@code uri:line} and kept across runs as an
+ * exponentially weighted moving average. {@link Core} updates it after every run when
+ * {@value ReportOptions#DURATION_MODEL} is set; a custom runner or fork distributor can load the same
+ * file to start the longest scenarios first or to split them evenly over workers.
+ * <p>
+ * Only passing scenarios update their estimate, since failures usually stop early. Scenarios the
+ * model has not seen yet are estimated at the median of the known ones. Parallel forks can share
+ * the file: each save takes a lock on a {@code .lock} file next to it, re-reads the file and folds
+ * only its own new measurements into what the other forks saved.
+ */
+public final class DurationModel {
+    private static final org.slf4j.Logger LOGGER = org.slf4j.LoggerFactory.getLogger(DurationModel.class);
+    private final double weight;
+    private final Map<String, Estimate> estimates = new TreeMap<>();
+    /** Measurements recorded since the model was loaded or last saved, to merge into the file on save. */
+    private final Map<String, List<Long>> unsaved = new LinkedHashMap<>();
+    private long median = -1;
+
+    private DurationModel(double weight) {
+        if (!(weight > 0 && weight <= 1)) {
+            throw new IllegalArgumentException("weight must be in (0, 1]: " + weight);
+        }
+        this.weight = weight;
+    }
+
+    /** An empty model giving each new observation the {@code weight} (0 to 1) of the estimate it updates. */
+    public static DurationModel empty(double weight) {
+        return new DurationModel(weight);
+    }
+
+    /** Loads the model saved at {@code file}, or an empty one if there is none yet. */
+    public static DurationModel load(Path file, double weight) throws IOException {
+        DurationModel model = new DurationModel(weight);
+        if (!Files.exists(file)) {
+            return model;
+        }
+        read(file, model.estimates);
+        return model;
+    }
+
+    /**
+     * Adds the measurements recorded since the model was loaded or last saved to the estimates in
+     * {@code file}, which may have been updated by other processes in the meantime, and replaces the
+     * file only once complete. An unreadable file is treated as empty. Afterwards this model holds
+     * the merged estimates.
+     */
+    public void save(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path lockFile = parent.resolve(file.getFileName() + ".lock");
+        // File locks are held per JVM, so threads of the same JVM queue up here first
+        synchronized (DurationModel.class) {
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                // Released when the channel closes
+                channel.lock();
+                Map<String, Estimate> merged = new TreeMap<>();
+                if (Files.exists(file)) {
+                    try {
+                        read(file, merged);
+                    } catch (IOException | RuntimeException e) {
+                        // Same recovery as on load, otherwise a damaged file could never be replaced
+                        LOGGER.warn("Could not read scenario durations from {}, replacing them.", file, e);
+                        merged.clear();
+                    }
+                }
+                unsaved.forEach((location, samples) -> samples.forEach(sample -> fold(merged, location, sample)));
+                write(file, merged);
+                estimates.clear();
+                estimates.putAll(merged);
+                unsaved.clear();
+                median = -1;
+            }
+        }
+    }
+
+    private static void read(Path file, Map<String, Estimate> into) throws IOException {
+        JsonNode scenarios = Json.MAPPER.readTree(file.toFile()).path("scenarios");
+        for (Map.Entry<String, JsonNode> field : scenarios.properties()) {
+            into.put(field.getKey(), new Estimate(field.getValue().path("estimate").asLong(), field.getValue().path("samples").asInt()));
+        }
+    }
+
+    private static void write(Path file, Map<String, Estimate> estimates) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        File temp = File.createTempFile("cucumber-durations", ".tmp", parent.toFile());
+        try {
+            try (JsonGenerator generator = Json.MAPPER.getFactory().createGenerator(temp, JsonEncoding.UTF8)) {
+                generator.writeStartObject();
+                generator.writeObjectFieldStart("scenarios");
+                for (Map.Entry<String, Estimate> entry : estimates.entrySet()) {
+                    generator.writeObjectFieldStart(entry.getKey());
+                    generator.writeNumberField("estimate", entry.getValue().nanos);
+                    generator.writeNumberField("samples", entry.getValue().samples);
+                    generator.writeEndObject();
+                }
+                generator.writeEndObject();
+                generator.writeEndObject();
+            }
+            Files.move(temp.toPath(), file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+    }
+
+    /** The key the model uses for the scenario at {@code line} of the feature file at {@code uri}. */
+    public static String key(URI uri, int line) {
+        return Locations.key(Locations.relativize(uri).toString(), line);
+    }
+
+    /** Folds a measured duration into the scenario's estimate. */
+    public void record(String location, long durationNanos) {
+        median = -1;
+        fold(estimates, location, durationNanos);
+        unsaved.computeIfAbsent(location, unused -> new ArrayList<>()).add(durationNanos);
+    }
+
+    private void fold(Map<String, Estimate> into, String location, long durationNanos) {
+        into.merge(location, new Estimate(durationNanos, 1), (previous, sample) ->
+                new Estimate(Math.round(weight * durationNanos + (1 - weight) * previous.nanos), previous.samples + 1));
+    }
+
+    /** Expected duration in nanoseconds; the median of all known scenarios for an unknown one. */
+    public long estimate(String location) {
+        Estimate estimate = estimates.get(location);
+        return estimate != null ? estimate.nanos : median();
+    }
+
+    public boolean contains(String location) {
+        return estimates.containsKey(location);
+    }
+
+    public int size() {
+        return estimates.size();
+    }
+
+    /** {@code locations} in the order they should start, longest expected first. */
+    public List<String> longestFirst(Collection<String> locations) {
+        return ShardPlanner.longestFirst(expected(locations));
+    }
+
+    /**
+     * Splits {@code locations} over {@code workers} so that they are expected to finish together.
+     * Each partition lists its scenarios longest first.
+     */
+    public List<List<String>> partition(Collection<String> locations, int workers) {
+        List<List<String>> partitions = new ArrayList<>(workers);
+        for (ShardPlanner.Shard shard : ShardPlanner.plan(expected(locations), workers)) {
+            partitions.add(shard.scenarios());
+        }
+        return partitions;
+    }
+
+    private Map<String, Long> expected(Collection<String> locations) {
+        long unknown = median();
+        Map<String, Long> expected = new LinkedHashMap<>();
+        for (String location : locations) {
+            Estimate estimate = estimates.get(location);
+            expected.put(location, estimate != null ? estimate.nanos : unknown);
+        }
+        return expected;
+    }
+
+    private long median() {
+        if (median < 0) {
+            long[] values = estimates.values().stream().mapToLong(estimate -> estimate.nanos).toArray();
+            Arrays.sort(values);
+            median = values.length == 0 ? 0 : values[values.length / 2];
+        }
+        return median;
+    }
+
+    private record Estimate(long nanos, int samples) {
+    }
+}
@@ -0,0 +1,236 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Keeps attachments within a predictable size budget while the report is generated:
+ * <ul>
+ *     <li>images larger than {@link ReportOptions#getImageMaxDimension()} are downscaled and re-encoded,</li>
+ *     <li>text attachments and {@code output} entries longer than {@link ReportOptions#getTextMaxSize()}
+ *     keep only their head and tail,</li>
+ *     <li>attachments beyond {@link ReportOptions#getScenarioAttachmentBudget()} per scenario are replaced
+ *     by a short note, dropping those of passing steps before after-hooks and failed steps so that
+ *     failure screenshots survive.</li>
+ * </ul>
+ * Sizes are in characters for text and decoded bytes for attachments. A limit of 0 disables that policy.
+ */
+final class EmbeddingPolicy implements FeatureTransformer {
+    private static final org.slf4j.Logger LOGGER = org.slf4j.LoggerFactory.getLogger(EmbeddingPolicy.class);
+
+    private final int imageMaxDimension;
+    private final int textMaxSize;
+    private final long scenarioBudget;
+
+    private int imagesDownscaled;
+    private int textsTruncated;
+    private int attachmentsOmitted;
+
+    EmbeddingPolicy(ReportOptions options) {
+        this.imageMaxDimension = options.getImageMaxDimension();
+        this.textMaxSize = options.getTextMaxSize();
+        this.scenarioBudget = options.getScenarioAttachmentBudget();
+    }
+
+    boolean isActive() {
+        return imageMaxDimension > 0 || textMaxSize > 0 || scenarioBudget > 0;
+    }
+
+    @Override
+    public void transform(ObjectNode feature) {
+        for (JsonNode element : feature.path("elements")) {
+            List<Attachment> attachments = new ArrayList<>();
+            collect(element.path("before"), Attachment.RANK_STEP, attachments);
+            for (JsonNode step : element.path("steps")) {
+                int rank = "failed".equals(step.path("result").path("status").asText()) ? Attachment.RANK_FAILURE : Attachment.RANK_STEP;
+                collect(step.path("before"), rank, attachments);
+                collect(step, rank, attachments);
+                collect(step.path("after"), rank, attachments);
+            }
+            collect(element.path("after"), Attachment.RANK_AFTER_HOOK, attachments);
+            applyScenarioBudget(attachments);
+        }
+    }
+
+    /** Logs what the policies changed; call once the whole report has been written. */
+    void logSummary() {
+        if (imagesDownscaled + textsTruncated + attachmentsOmitted > 0) {
+            LOGGER.info("Attachment policies downscaled {} images, truncated {} texts and omitted {} attachments",
+                    imagesDownscaled, textsTruncated, attachmentsOmitted);
+        }
+    }
+
+    /** Applies the per-attachment policies to a step or hook (or each of an array of hooks). */
+    private void collect(JsonNode node, int rank, List<Attachment> attachments) {
+        if (node.isArray()) {
+            for (JsonNode hook : node) {
+                collect(hook, rank, attachments);
+            }
+            return;
+        }
+        JsonNode output = node.path("output");
+        if (textMaxSize > 0 && output.isArray()) {
+            ArrayNode lines = (ArrayNode) output;
+            for (int i = 0; i < lines.size(); i++) {
+                String text = lines.get(i).asText();
+                String truncated = text.length() > textMaxSize ? truncate(text, textMaxSize) : text;
+                if (truncated.length() < text.length()) {
+                    lines.set(i, TextNode.valueOf(truncated));
+                    textsTruncated++;
+                }
+            }
+        }
+        for (JsonNode embedding : node.path("embeddings")) {
+            if (embedding instanceof ObjectNode && embedding.path("data").isTextual()) {
+                ObjectNode attachment = (ObjectNode) embedding;
+                shrink(attachment);
+                attachments.add(new Attachment(attachment, rank));
+            }
+        }
+    }
+
+    private void shrink(ObjectNode embedding) {
+        String mimeType = embedding.path("mime_type").asText("").toLowerCase(Locale.ROOT);
+        if (imageMaxDimension > 0 && mimeType.startsWith("image/")) {
+            downscale(embedding, mimeType);
+        } else if (textMaxSize > 0 && isText(mimeType)) {
+            byte[] bytes = decode(embedding);
+            if (bytes != null) {
+                String text = new String(bytes, StandardCharsets.UTF_8);
+                String truncated = text.length() > textMaxSize ? truncate(text, textMaxSize) : text;
+                if (truncated.length() < text.length()) {
+                    embedding.put("data", Base64.getEncoder().encodeToString(truncated.getBytes(StandardCharsets.UTF_8)));
+                    textsTruncated++;
+                }
+            }
+        }
+    }
+
+    private void downscale(ObjectNode embedding, String mimeType) {
+        byte[] bytes = decode(embedding);
+        if (bytes == null) {
+            return;
+        }
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes));
+            if (image == null || Math.max(image.getWidth(), image.getHeight()) <= imageMaxDimension) {
+                return;
+            }
+            double scale = imageMaxDimension / (double) Math.max(image.getWidth(), image.getHeight());
+            int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+            int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+            boolean alpha = image.getColorModel().hasAlpha();
+            BufferedImage scaled = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = scaled.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(image, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+
+            // Keep the original format where ImageIO can write it; JPEG cannot hold an alpha channel
+            String format = mimeType.substring("image/".length());
+            if (alpha && (format.equals("jpeg") || format.equals("jpg"))) {
+                format = "png";
+            }
+            ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+            if (!ImageIO.write(scaled, format, encoded)) {
+                format = "png";
+                encoded.reset();
+                ImageIO.write(scaled, format, encoded);
+            }
+            if (encoded.size() > 0 && encoded.size() < bytes.length) {
+                embedding.put("mime_type", "image/" + format);
+                embedding.put("data", Base64.getEncoder().encodeToString(encoded.toByteArray()));
+                imagesDownscaled++;
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug("Could not downscale {} attachment, keeping it unchanged", mimeType, e);
+        }
+    }
+
+    private void applyScenarioBudget(List<Attachment> attachments) {
+        if (scenarioBudget <= 0) {
+            return;
+        }
+        long total = 0;
+        for (Attachment attachment : attachments) {
+            total += attachment.size();
+        }
+        if (total <= scenarioBudget) {
+            return;
+        }
+        attachments.sort(Comparator.comparingInt(Attachment::rank).thenComparing(Comparator.comparingLong(Attachment::size).reversed()));
+        for (Attachment attachment : attachments) {
+            if (total <= scenarioBudget) {
+                break;
+            }
+            total -= attachment.size();
+            String note = String.format(Locale.ROOT, "[%s attachment of %d bytes omitted: scenario exceeds the %d byte attachment budget]",
+                    attachment.embedding().path("mime_type").asText("unknown"), attachment.size(), scenarioBudget);
+            attachment.embedding().put("mime_type", "text/plain");
+            attachment.embedding().put("data", Base64.getEncoder().encodeToString(note.getBytes(StandardCharsets.UTF_8)));
+            attachmentsOmitted++;
+        }
+    }
+
+    /**
+     * Head and tail of {@code text} around a note on what was cut, or {@code text} itself when it is
+     * so little over {@code maxSize} that the note would make it longer.
+     */
+    static String truncate(String text, int maxSize) {
+        int half = Math.max(1, maxSize / 2);
+        int headEnd = half;
+        if (Character.isHighSurrogate(text.charAt(headEnd - 1))) {
+            headEnd--;
+        }
+        int tailStart = text.length() - half;
+        if (Character.isLowSurrogate(text.charAt(tailStart))) {
+            tailStart++;
+        }
+        String truncated = text.substring(0, headEnd)
+                + "\n... [" + (tailStart - headEnd) + " characters truncated] ...\n"
+                + text.substring(tailStart);
+        return truncated.length() < text.length() ? truncated : text;
+    }
+
+    private static boolean isText(String mimeType) {
+        return mimeType.startsWith("text/") || mimeType.endsWith("/json") || mimeType.endsWith("/xml") || mimeType.endsWith("+json") || mimeType.endsWith("+xml");
+    }
+
+    private static byte[] decode(ObjectNode embedding) {
+        try {
+            return Base64.getMimeDecoder().decode(embedding.path("data").asText());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private record Attachment(ObjectNode embedding, int rank) {
+        static final int RANK_STEP = 0;
+        static final int RANK_AFTER_HOOK = 1;
+        static final int RANK_FAILURE = 2;
+
+        /** Decoded size, derived from the base64 length. */
+        long size() {
+            return embedding.path("data").asText().length() * 3L / 4;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Groups failed steps and hooks by a normalized error signature, so that thousands of failures
+ * caused by the same problem show up as one cluster with a count and a representative trace.
+ * <p>
+ * Every failed result gets an {@code error_signature}. With deduplication enabled, each repeated
+ * trace is cut down to its first line plus a reference to its cluster; the full trace is kept once, in
+ * the cluster. Only one entry per distinct signature is kept in memory.
+ */
+final class FailureClusterer implements FeatureTransformer, ReportSection {
+    /** Frames past this point rarely tell failures apart and mostly differ by framework depth. */
+    private static final int SIGNATURE_LINES = 30;
+
+    private static final Pattern FRAME_LINE_NUMBER = Pattern.compile("\\(([^()\\s]+):\\d+\\)");
+    private static final Pattern TIMESTAMP = Pattern.compile(
+            "\\d{4}-\\d{2}-\\d{2}[T ]\\d{2}:\\d{2}(?::\\d{2}(?:[.,]\\d+)?)?(?:Z|[+-]\\d{2}:?\\d{2})?");
+    private static final Pattern UUID = Pattern.compile(
+            "\\b[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}\\b");
+    private static final Pattern HEX = Pattern.compile("\\b0x[0-9a-fA-F]+\\b|@[0-9a-fA-F]{4,}\\b");
+    private static final Pattern LONG_NUMBER = Pattern.compile("\\b\\d{4,}\\b");
+    private static final Pattern MORE_FRAMES = Pattern.compile("^\\s*\\.\\.\\. \\d+ more\\s*$");
+
+    private final boolean deduplicate;
+    private final Map<String, Cluster> clusters = new HashMap<>();
+
+    FailureClusterer(boolean deduplicate) {
+        this.deduplicate = deduplicate;
+    }
+
+    @Override
+    public void transform(ObjectNode feature) {
+        String uri = feature.path("uri").asText();
+        for (JsonNode element : feature.path("elements")) {
+            visit(element.path("before"), uri, element);
+            for (JsonNode step : element.path("steps")) {
+                visit(step.path("before"), uri, element);
+                visit(step, uri, element);
+                visit(step.path("after"), uri, element);
+            }
+            visit(element.path("after"), uri, element);
+        }
+    }
+
+    /** Writes the clusters, most frequent first. */
+    @Override
+    public void write(JsonGenerator generator) throws IOException {
+        List<Cluster> sorted = new ArrayList<>(clusters.values());
+        sorted.sort(Comparator.comparingInt((Cluster cluster) -> cluster.count).reversed().thenComparing(cluster -> cluster.signature));
+        generator.writeStartArray();
+        for (Cluster cluster : sorted) {
+            generator.writeStartObject();
+            generator.writeStringField("signature", cluster.signature);
+            generator.writeNumberField("count", cluster.count);
+            generator.writeStringField("message", firstLine(cluster.representative));
+            generator.writeStringField("representative", cluster.representative);
+            generator.writeStringField("uri", cluster.uri);
+            generator.writeNumberField("line", cluster.line);
+            generator.writeStringField("scenario", cluster.scenario);
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    int clusterCount() {
+        return clusters.size();
+    }
+
+    private void visit(JsonNode node, String uri, JsonNode element) {
+        if (node.isArray()) {
+            for (JsonNode hook : node) {
+                visit(hook, uri, element);
+            }
+            return;
+        }
+        JsonNode result = node.path("result");
+        // Pending steps and skipped assumptions carry an error message too, but did not fail
+        if (!(result instanceof ObjectNode) || !result.path("error_message").isTextual()
+                || !ScenarioResult.isFailed(result.path("status").asText())) {
+            return;
+        }
+        ObjectNode failure = (ObjectNode) result;
+        String errorMessage = failure.path("error_message").asText();
+        String signature = signature(errorMessage);
+        failure.put("error_signature", signature);
+
+        Cluster cluster = clusters.get(signature);
+        if (cluster == null) {
+            clusters.put(signature, new Cluster(signature, errorMessage, uri, element.path("line").asInt(), element.path("name").asText()));
+        } else {
+            cluster.count++;
+            if (deduplicate) {
+                failure.put("error_message", firstLine(errorMessage) + "\n\t(same stack trace as failure cluster " + signature + ")");
+            }
+        }
+    }
+
+    /** Hash of the trace with line numbers, ids, timestamps and other run-specific noise removed. */
+    static String signature(String errorMessage) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(normalize(errorMessage).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    static String normalize(String errorMessage) {
+        StringBuilder normalized = new StringBuilder();
+        int lines = 0;
+        for (String line : errorMessage.split("\\R")) {
+            if (line.isBlank() || MORE_FRAMES.matcher(line).matches()) {
+                continue;
+            }
+            String cleaned = FRAME_LINE_NUMBER.matcher(line.strip()).replaceAll("($1)");
+            cleaned = TIMESTAMP.matcher(cleaned).replaceAll("<timestamp>");
+            cleaned = UUID.matcher(cleaned).replaceAll("<uuid>");
+            cleaned = HEX.matcher(cleaned).replaceAll("<hex>");
+            cleaned = LONG_NUMBER.matcher(cleaned).replaceAll("<n>");
+            normalized.append(cleaned).append('\n');
+            if (++lines == SIGNATURE_LINES) {
+                break;
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static String firstLine(String text) {
+        int end = text.indexOf('\n');
+        return (end < 0 ? text : text.substring(0, end)).stripTrailing();
+    }
+
+    private static final class Cluster {
+        final String signature;
+        final String representative;
+        final String uri;
+        final int line;
+        final String scenario;
+        int count = 1;
+
+        Cluster(String signature, String representative, String uri, int line, String scenario) {
+            this.signature = signature;
+            this.representative = representative;
+            this.uri = uri;
+            this.line = line;
+            this.scenario = scenario;
+        }
+    }
+}
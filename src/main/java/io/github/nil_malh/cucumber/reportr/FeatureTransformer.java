@@ -0,0 +1,12 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * A pass over each feature of the Cucumber JSON while it is streamed into the report. Transformers
+ * run in order on the same feature tree and may modify it in place.
+ */
+@FunctionalInterface
+interface FeatureTransformer {
+    void transform(ObjectNode feature);
+}
@@ -0,0 +1,17 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * The one {@link ObjectMapper} used for reading and writing reports. A mapper is expensive to build
+ * and to use for the first time, as it fills its serializer and deserializer caches, so it is
+ * shared by every report generated in the JVM. Being a holder class, it is only loaded, and the
+ * mapper only built, when the first report needs it, which keeps plugin start-up light.
+ */
+final class Json {
+    static final ObjectMapper MAPPER = JsonMapper.builder().build();
+
+    private Json() {
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Output for the {@code JsonFormatter} that creates its temporary file on the first write instead
+ * of when the plugin is constructed, so starting a JVM that never runs a scenario costs no file
+ * system work. Closing the stream creates the file if nothing was written, so the report always
+ * has a file to read.
+ */
+final class LazyTempFileOutputStream extends OutputStream {
+    private static final org.slf4j.Logger LOGGER = org.slf4j.LoggerFactory.getLogger(LazyTempFileOutputStream.class);
+
+    private File file;
+    private OutputStream out;
+    private boolean closed;
+
+    /** The temporary file, created now if it does not exist yet. */
+    synchronized File file() throws IOException {
+        if (file == null) {
+            file = Core.createTempFileDeletedOnExit();
+        }
+        return file;
+    }
+
+    /** Whether the file has been created, without creating it. */
+    synchronized boolean isCreated() {
+        return file != null;
+    }
+
+    @Override
+    public synchronized void write(int b) throws IOException {
+        out().write(b);
+    }
+
+    @Override
+    public synchronized void write(byte[] bytes, int offset, int length) throws IOException {
+        out().write(bytes, offset, length);
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        out().close();
+        closed = true;
+    }
+
+    private OutputStream out() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (out == null) {
+            out = new FileOutputStream(file());
+            LOGGER.info("Writing JSON file to {}", file.getAbsolutePath());
+        }
+        return out;
+    }
+}
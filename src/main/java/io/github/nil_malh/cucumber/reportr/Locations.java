@@ -0,0 +1,40 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import io.cucumber.plugin.event.TestCase;
+
+import java.io.File;
+import java.net.URI;
+import java.net.URISyntaxException;
+
+/**
+ * Scenario location keys ({@code uri:line}) that line up with the {@code uri} and {@code line}
+ * fields the {@code JsonFormatter} writes, so event-side data can be joined with the JSON report.
+ */
+final class Locations {
+
+    private Locations() {
+    }
+
+    static String key(TestCase testCase) {
+        return key(relativize(testCase.getUri()).toString(), testCase.getLocation().getLine());
+    }
+
+    static String key(String uri, int line) {
+        return uri + ":" + line;
+    }
+
+    /** Same relativization as Cucumber's JSON formatter: file URIs become relative to the working directory. */
+    static URI relativize(URI uri) {
+        if (!"file".equals(uri.getScheme()) || !uri.isAbsolute()) {
+            return uri;
+        }
+        try {
+            URI root = new File("").toURI();
+            URI relative = root.relativize(uri);
+            // Scheme is lost by relativize
+            return new URI("file", relative.getSchemeSpecificPart(), relative.getFragment());
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes each feature of the report on a line of its own ({@code cucumber-report-data.ndjson}), so
+ * that a page can fetch the data and render features as they arrive instead of waiting for one
+ * large JSON array. Features are written as they stream through the report, with the attachment
+ * policies and failure signatures applied but before any encoding that needs the extras to read.
+ */
+final class NdjsonFeatureWriter extends NdjsonFile {
+    static final String FILE_NAME = "cucumber-report-data.ndjson";
+
+    private final ObjectMapper mapper;
+
+    NdjsonFeatureWriter(ObjectMapper mapper, File outputDir) throws IOException {
+        super(mapper, outputDir, FILE_NAME);
+        this.mapper = mapper;
+    }
+
+    @Override
+    public void transform(ObjectNode feature) {
+        try {
+            mapper.writeTree(generator, feature);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
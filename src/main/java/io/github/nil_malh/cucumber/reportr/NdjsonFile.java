@@ -0,0 +1,50 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * A newline-delimited JSON file next to the report, filled by a transformer while the data streams
+ * past. Like the HTML report, it is written under a temporary name and only moved into place by
+ * {@link #commit()}, so a failed run never leaves a truncated file behind.
+ */
+abstract class NdjsonFile implements FeatureTransformer, Closeable {
+    private final File file;
+    private final File tempFile;
+    protected final JsonGenerator generator;
+
+    NdjsonFile(ObjectMapper mapper, File outputDir, String fileName) throws IOException {
+        this.file = new File(outputDir, fileName);
+        this.tempFile = new File(outputDir, fileName + ".tmp");
+        this.generator = mapper.getFactory().createGenerator(tempFile, JsonEncoding.UTF8);
+        // Root values are separated by a newline instead of the default space
+        generator.setRootValueSeparator(new SerializedString("\n"));
+    }
+
+    /** Finishes the file and moves it into place. */
+    void commit() throws IOException {
+        generator.writeRaw('\n');
+        generator.close();
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /** Drops the temporary file if {@link #commit()} did not happen. */
+    @Override
+    public void close() throws IOException {
+        generator.close();
+        Files.deleteIfExists(tempFile.toPath());
+    }
+
+    @Override
+    public String toString() {
+        return file.getAbsolutePath();
+    }
+}
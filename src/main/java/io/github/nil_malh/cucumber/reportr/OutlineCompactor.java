@@ -0,0 +1,101 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Writes the rows of a scenario outline as patches against the first row, and repeated backgrounds
+ * as patches against the first copy of that background. A row then only carries what actually
+ * differs: its id and line, the substituted step text and arguments, and the results.
+ * <p>
+ * A patch has a {@code $template} field with the index of the full element in the same feature.
+ * Objects in a patch are applied field by field; arrays of the template's length element by
+ * element; any other value replaces the template's. Fields the row lacks are listed in
+ * {@code $removed}. The frontend expands rows again when they are read.
+ */
+final class OutlineCompactor implements FeatureTransformer {
+    static final String TEMPLATE = "$template";
+    static final String REMOVED = "$removed";
+
+    private int compacted;
+
+    @Override
+    public void transform(ObjectNode feature) {
+        JsonNode elements = feature.path("elements");
+        if (!elements.isArray()) {
+            return;
+        }
+        ArrayNode rows = (ArrayNode) elements;
+        Map<String, Integer> templates = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            JsonNode element = rows.get(i);
+            String key = templateKey(element);
+            if (key == null) {
+                continue;
+            }
+            Integer template = templates.putIfAbsent(key, i);
+            if (template != null) {
+                ObjectNode patch = (ObjectNode) diff(element, rows.get(template));
+                patch.put(TEMPLATE, template);
+                rows.set(i, patch);
+                compacted++;
+            }
+        }
+    }
+
+    int compactedCount() {
+        return compacted;
+    }
+
+    /** Outline rows share their id up to the example row; backgrounds share their line. */
+    private static String templateKey(JsonNode element) {
+        if (!element.isObject()) {
+            return null;
+        }
+        if ("background".equals(element.path("type").asText())) {
+            return "background:" + element.path("line").asInt();
+        }
+        String id = element.path("id").asText();
+        int separators = (int) id.chars().filter(c -> c == ';').count();
+        return separators >= 3 ? "outline:" + id.substring(0, id.lastIndexOf(';')) : null;
+    }
+
+    static JsonNode diff(JsonNode row, JsonNode template) {
+        if (row.isObject() && template.isObject()) {
+            ObjectNode patch = JsonNodeFactory.instance.objectNode();
+            ArrayNode removed = null;
+            for (Iterator<String> fields = template.fieldNames(); fields.hasNext(); ) {
+                String field = fields.next();
+                if (!row.has(field)) {
+                    if (removed == null) {
+                        removed = patch.putArray(REMOVED);
+                    }
+                    removed.add(field);
+                }
+            }
+            for (Map.Entry<String, JsonNode> field : row.properties()) {
+                JsonNode previous = template.get(field.getKey());
+                if (previous == null) {
+                    patch.set(field.getKey(), field.getValue());
+                } else if (!previous.equals(field.getValue())) {
+                    patch.set(field.getKey(), diff(field.getValue(), previous));
+                }
+            }
+            return patch;
+        }
+        if (row.isArray() && template.isArray() && row.size() == template.size()) {
+            ArrayNode patch = JsonNodeFactory.instance.arrayNode(row.size());
+            for (int i = 0; i < row.size(); i++) {
+                patch.add(diff(row.get(i), template.get(i)));
+            }
+            return patch;
+        }
+        return row;
+    }
+}
@@ -0,0 +1,258 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Optional report features, read from {@code cucumber.reportr.*} system properties.
+ * Everything defaults to off so that a plain {@code Core} behaves exactly like before.
+ */
+public final class ReportOptions {
+    private static final org.slf4j.Logger LOGGER = org.slf4j.LoggerFactory.getLogger(ReportOptions.class);
+    static final String PREFIX = "cucumber.reportr.";
+
+    /** Emit JFR events per test case and step and embed a GC/allocation summary per scenario. */
+    public static final String JFR_ENABLED = PREFIX + "jfr.enabled";
+    /** Record when and on which thread each test case ran and show it as a timeline. */
+    public static final String TIMELINE_ENABLED = PREFIX + "timeline.enabled";
+    /** Finished test cases that may wait for the writer thread before scenario threads block. */
+    public static final String QUEUE_CAPACITY = PREFIX + "queue.capacity";
+    /** Heap kept for finished test case results before they spill to disk, e.g. {@code 64m}. */
+    public static final String MEMORY_BUDGET = PREFIX + "memory.budget";
+    /** Longest image side in pixels; larger image attachments are downscaled. 0 keeps images as they are. */
+    public static final String IMAGE_MAX_DIMENSION = PREFIX + "embeddings.image.max-dimension";
+    /** Characters kept (head and tail) of text attachments and step output. 0 keeps them complete. */
+    public static final String TEXT_MAX_SIZE = PREFIX + "embeddings.text.max-size";
+    /** Total attachment bytes per scenario, e.g. {@code 5m}. 0 means unlimited. */
+    public static final String SCENARIO_ATTACHMENT_BUDGET = PREFIX + "embeddings.scenario.max-size";
+    /** Group failures by normalized error signature and add an {@code error_signature} to every failed result. */
+    public static final String FAILURE_CLUSTERING = PREFIX + "failures.cluster";
+    /** Keep each repeated stack trace only once, in its failure cluster. Implies clustering. */
+    public static final String FAILURE_DEDUPLICATION = PREFIX + "failures.deduplicate";
+    /** Replace keywords, step names, locations, tags and URIs with indices into a shared string table. */
+    public static final String STRING_DICTIONARY = PREFIX + "strings.dictionary";
+    /** Write scenario outline rows and repeated backgrounds as patches against their first occurrence. */
+    public static final String OUTLINE_COMPACTION = PREFIX + "outlines.compact";
+    /** Cucumber JSON of an earlier run to compare this run with. */
+    public static final String BASELINE = PREFIX + "baseline";
+    /** How much slower than the baseline, in percent, a scenario must get to be reported as slower. */
+    public static final String BASELINE_SLOWDOWN_PERCENT = PREFIX + "baseline.slowdown-percent";
+    /** Slowdowns shorter than this many milliseconds are ignored, however large relative to the baseline. */
+    public static final String BASELINE_MIN_SLOWDOWN = PREFIX + "baseline.min-slowdown-ms";
+    /** Write the failed and flaky scenarios next to the report as a Cucumber rerun file. */
+    public static final String RERUN_ENABLED = PREFIX + "rerun.enabled";
+    /** Workers to spread all scenarios over by measured duration; 0 writes no shard plan. */
+    public static final String SHARDS = PREFIX + "shards";
+    /** File keeping each scenario's expected duration across runs, updated after every run. */
+    public static final String DURATION_MODEL = PREFIX + "durations.file";
+    /** Weight (0 to 1) of the latest run in each scenario's expected duration. */
+    public static final String DURATION_WEIGHT = PREFIX + "durations.weight";
+    /** Also write the report data as one feature per line, for pages that load and render it incrementally. */
+    public static final String DATA_NDJSON = PREFIX + "data.ndjson";
+    /** Write one flat record per scenario and per step, without attachments, for analytics tools. */
+    public static final String RESULTS_NDJSON = PREFIX + "results.ndjson";
+
+    private final boolean jfrEnabled;
+    private final boolean timelineEnabled;
+    private final int queueCapacity;
+    private final long memoryBudget;
+    private final int imageMaxDimension;
+    private final int textMaxSize;
+    private final long scenarioAttachmentBudget;
+    private final boolean failureDeduplication;
+    private final boolean failureClustering;
+    private final boolean stringDictionary;
+    private final boolean outlineCompaction;
+    private final File baseline;
+    private final int baselineSlowdownPercent;
+    private final Duration baselineMinSlowdown;
+    private final boolean rerunEnabled;
+    private final int shards;
+    private final Path durationModel;
+    private final double durationWeight;
+    private final boolean dataNdjson;
+    private final boolean resultsNdjson;
+
+    private ReportOptions(Properties properties) {
+        this.jfrEnabled = Boolean.parseBoolean(properties.getProperty(JFR_ENABLED, "false"));
+        this.timelineEnabled = Boolean.parseBoolean(properties.getProperty(TIMELINE_ENABLED, "false"));
+        this.queueCapacity = intValue(properties, QUEUE_CAPACITY, 1024, 1);
+        this.memoryBudget = bytes(properties, MEMORY_BUDGET, 64L * 1024 * 1024);
+        this.imageMaxDimension = intValue(properties, IMAGE_MAX_DIMENSION, 0, 0);
+        this.textMaxSize = (int) Math.min(Integer.MAX_VALUE, bytes(properties, TEXT_MAX_SIZE, 0));
+        this.scenarioAttachmentBudget = bytes(properties, SCENARIO_ATTACHMENT_BUDGET, 0);
+        this.failureDeduplication = Boolean.parseBoolean(properties.getProperty(FAILURE_DEDUPLICATION, "false"));
+        this.failureClustering = failureDeduplication || Boolean.parseBoolean(properties.getProperty(FAILURE_CLUSTERING, "false"));
+        this.stringDictionary = Boolean.parseBoolean(properties.getProperty(STRING_DICTIONARY, "false"));
+        this.outlineCompaction = Boolean.parseBoolean(properties.getProperty(OUTLINE_COMPACTION, "false"));
+        String baselinePath = properties.getProperty(BASELINE);
+        this.baseline = baselinePath == null || baselinePath.isBlank() ? null : new File(baselinePath.trim());
+        this.baselineSlowdownPercent = intValue(properties, BASELINE_SLOWDOWN_PERCENT, 50, 0);
+        this.baselineMinSlowdown = Duration.ofMillis(intValue(properties, BASELINE_MIN_SLOWDOWN, 100, 0));
+        this.rerunEnabled = Boolean.parseBoolean(properties.getProperty(RERUN_ENABLED, "false"));
+        this.shards = intValue(properties, SHARDS, 0, 0);
+        String durationModelPath = properties.getProperty(DURATION_MODEL);
+        this.durationModel = durationModelPath == null || durationModelPath.isBlank() ? null : Path.of(durationModelPath.trim());
+        this.durationWeight = weight(properties, DURATION_WEIGHT, 0.3);
+        this.dataNdjson = Boolean.parseBoolean(properties.getProperty(DATA_NDJSON, "false"));
+        this.resultsNdjson = Boolean.parseBoolean(properties.getProperty(RESULTS_NDJSON, "false"));
+    }
+
+    public static ReportOptions defaults() {
+        return new ReportOptions(new Properties());
+    }
+
+    public static ReportOptions fromSystemProperties() {
+        return new ReportOptions(System.getProperties());
+    }
+
+    public static ReportOptions from(Properties properties) {
+        return new ReportOptions(properties);
+    }
+
+    public boolean isJfrEnabled() {
+        return jfrEnabled;
+    }
+
+    public boolean isTimelineEnabled() {
+        return timelineEnabled;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    public int getImageMaxDimension() {
+        return imageMaxDimension;
+    }
+
+    public int getTextMaxSize() {
+        return textMaxSize;
+    }
+
+    public long getScenarioAttachmentBudget() {
+        return scenarioAttachmentBudget;
+    }
+
+    public boolean isFailureClustering() {
+        return failureClustering;
+    }
+
+    public boolean isFailureDeduplication() {
+        return failureDeduplication;
+    }
+
+    public boolean isStringDictionary() {
+        return stringDictionary;
+    }
+
+    public boolean isOutlineCompaction() {
+        return outlineCompaction;
+    }
+
+    /** The baseline report to compare with, or {@code null} when no comparison is wanted. */
+    public File getBaseline() {
+        return baseline;
+    }
+
+    public int getBaselineSlowdownPercent() {
+        return baselineSlowdownPercent;
+    }
+
+    public Duration getBaselineMinSlowdown() {
+        return baselineMinSlowdown;
+    }
+
+    public boolean isRerunEnabled() {
+        return rerunEnabled;
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    /** Where the expected scenario durations are kept, or {@code null} when they are not. */
+    public Path getDurationModel() {
+        return durationModel;
+    }
+
+    public double getDurationWeight() {
+        return durationWeight;
+    }
+
+    public boolean isDataNdjson() {
+        return dataNdjson;
+    }
+
+    public boolean isResultsNdjson() {
+        return resultsNdjson;
+    }
+
+    private static int intValue(Properties properties, String key, int defaultValue, int min) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed >= min) {
+                return parsed;
+            }
+        } catch (NumberFormatException ignored) {
+            // fall through to the warning below
+        }
+        LOGGER.warn("Ignoring invalid value '{}' for {}, using {}", value, key, defaultValue);
+        return defaultValue;
+    }
+
+    /** Parses a number greater than 0 and at most 1. */
+    private static double weight(Properties properties, String key, double defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            double parsed = Double.parseDouble(value.trim());
+            if (parsed > 0 && parsed <= 1) {
+                return parsed;
+            }
+        } catch (NumberFormatException ignored) {
+            // fall through to the warning below
+        }
+        LOGGER.warn("Ignoring invalid value '{}' for {}, using {}", value, key, defaultValue);
+        return defaultValue;
+    }
+
+    /** Parses a byte size with an optional {@code k}, {@code m} or {@code g} suffix. */
+    private static long bytes(Properties properties, String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        String trimmed = value.trim().toLowerCase(Locale.ROOT);
+        long unit = 1;
+        switch (trimmed.charAt(trimmed.length() - 1)) {
+            case 'k' -> unit = 1024L;
+            case 'm' -> unit = 1024L * 1024;
+            case 'g' -> unit = 1024L * 1024 * 1024;
+            default -> { }
+        }
+        try {
+            long parsed = Long.parseLong(unit == 1 ? trimmed : trimmed.substring(0, trimmed.length() - 1));
+            if (parsed >= 0) {
+                return parsed * unit;
+            }
+        } catch (NumberFormatException ignored) {
+            // fall through to the warning below
+        }
+        LOGGER.warn("Ignoring invalid value '{}' for {}, using {}", value, key, defaultValue);
+        return defaultValue;
+    }
+}
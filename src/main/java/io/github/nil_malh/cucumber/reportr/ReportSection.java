@@ -0,0 +1,14 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
+/**
+ * An extras section that streams itself into the report instead of being materialized as an
+ * object tree first. Plain values in the extras map are serialized with Jackson as usual.
+ */
+@FunctionalInterface
+interface ReportSection {
+    void write(JsonGenerator generator) throws IOException;
+}
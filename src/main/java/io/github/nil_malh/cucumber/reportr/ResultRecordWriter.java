@@ -0,0 +1,149 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Flattens the report into {@code cucumber-results.ndjson}: one record per scenario followed by
+ * one per step, each carrying its feature, uri, tags, status, duration (nanoseconds) and, when it
+ * failed, its error signature. Every line stands on its own, so the file can be split, ingested in
+ * parallel or consumed as a stream. Attachments, step output and stack traces are left out.
+ * <p>
+ * Background steps are listed under the scenario they ran for, and count towards its status and
+ * duration as in {@link ScenarioResult}.
+ */
+final class ResultRecordWriter extends NdjsonFile {
+    static final String FILE_NAME = "cucumber-results.ndjson";
+
+    ResultRecordWriter(ObjectMapper mapper, File outputDir) throws IOException {
+        super(mapper, outputDir, FILE_NAME);
+    }
+
+    @Override
+    public void transform(ObjectNode feature) {
+        Map<JsonNode, ScenarioResult> results = new IdentityHashMap<>();
+        ScenarioResult.forEach(feature, (result, element) -> results.put(element, result));
+        try {
+            JsonNode background = null;
+            for (JsonNode element : feature.path("elements")) {
+                if ("background".equals(element.path("type").asText())) {
+                    background = element;
+                    continue;
+                }
+                ScenarioResult result = results.get(element);
+                if (result == null) {
+                    continue;
+                }
+                String signature = background == null ? null : firstSignature(background);
+                if (signature == null) {
+                    signature = firstSignature(element);
+                }
+                writeScenario(feature, element, result, signature);
+                if (background != null) {
+                    writeSteps(feature, element, background);
+                    background = null;
+                }
+                writeSteps(feature, element, element);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeScenario(JsonNode feature, JsonNode scenario, ScenarioResult result, String signature) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "scenario");
+        writeContext(feature, scenario);
+        generator.writeNumberField("line", result.line());
+        generator.writeStringField("id", result.id());
+        generator.writeStringField("status", result.status());
+        generator.writeNumberField("duration", result.duration());
+        if (signature != null) {
+            generator.writeStringField("error_signature", signature);
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeSteps(JsonNode feature, JsonNode scenario, JsonNode stepsOf) throws IOException {
+        for (JsonNode step : stepsOf.path("steps")) {
+            JsonNode result = step.path("result");
+            generator.writeStartObject();
+            generator.writeStringField("type", "step");
+            writeContext(feature, scenario);
+            generator.writeNumberField("scenario_line", scenario.path("line").asInt());
+            generator.writeNumberField("line", step.path("line").asInt());
+            generator.writeStringField("keyword", step.path("keyword").asText().trim());
+            generator.writeStringField("step", step.path("name").asText());
+            if (step.path("match").hasNonNull("location")) {
+                generator.writeStringField("location", step.path("match").path("location").asText());
+            }
+            generator.writeStringField("status", result.path("status").asText("undefined"));
+            generator.writeNumberField("duration", result.path("duration").asLong());
+            String signature = signature(result);
+            if (signature != null) {
+                generator.writeStringField("error_signature", signature);
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeContext(JsonNode feature, JsonNode scenario) throws IOException {
+        generator.writeStringField("feature", feature.path("name").asText());
+        generator.writeStringField("uri", feature.path("uri").asText());
+        generator.writeStringField("scenario", scenario.path("name").asText());
+        generator.writeArrayFieldStart("tags");
+        for (JsonNode tag : feature.path("tags")) {
+            generator.writeString(tag.path("name").asText());
+        }
+        for (JsonNode tag : scenario.path("tags")) {
+            generator.writeString(tag.path("name").asText());
+        }
+        generator.writeEndArray();
+    }
+
+    /** Signature of the first failure among the hooks and steps of {@code element}, in the order they ran. */
+    private static String firstSignature(JsonNode element) {
+        String signature = hookSignature(element.path("before"));
+        for (JsonNode step : element.path("steps")) {
+            if (signature != null) {
+                return signature;
+            }
+            signature = hookSignature(step.path("before"));
+            if (signature == null) {
+                signature = signature(step.path("result"));
+            }
+            if (signature == null) {
+                signature = hookSignature(step.path("after"));
+            }
+        }
+        return signature != null ? signature : hookSignature(element.path("after"));
+    }
+
+    private static String hookSignature(JsonNode hooks) {
+        for (JsonNode hook : hooks) {
+            String signature = signature(hook.path("result"));
+            if (signature != null) {
+                return signature;
+            }
+        }
+        return null;
+    }
+
+    /** Reuses the signature failure clustering put on the result, which also survives deduplication. */
+    private static String signature(JsonNode result) {
+        if (result.hasNonNull("error_signature")) {
+            return result.path("error_signature").asText();
+        }
+        if (ScenarioResult.isFailed(result.path("status").asText()) && result.hasNonNull("error_message")) {
+            return FailureClusterer.signature(result.path("error_message").asText());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/** JFR event spanning one Cucumber test case, so slow scenarios line up with GC, lock and I/O events in a recording. */
+@Name("io.github.nil_malh.cucumber.reportr.Scenario")
+@Label("Cucumber Scenario")
+@Category({"Cucumber", "Reportr"})
+@Description("Execution of a single Cucumber test case")
+@StackTrace(false)
+final class ScenarioJfrEvent extends Event {
+    @Label("URI")
+    String uri;
+
+    @Label("Line")
+    int line;
+
+    @Label("Name")
+    String name;
+
+    @Label("Status")
+    String status;
+
+    @Label("GC Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long gcTime;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocated;
+}
@@ -0,0 +1,17 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Per-scenario performance summary embedded in the report. Durations are in nanoseconds like
+ * Cucumber's own {@code result.duration}. GC figures are JVM-wide deltas over the scenario's
+ * lifetime, so with parallel execution they include collections caused by concurrent scenarios;
+ * {@code allocatedBytes} is measured on the executing thread only and is -1 when unsupported.
+ */
+record ScenarioProfile(
+        @JsonProperty("thread") String thread,
+        @JsonProperty("duration") long duration,
+        @JsonProperty("gc_count") long gcCount,
+        @JsonProperty("gc_time") long gcTime,
+        @JsonProperty("allocated_bytes") long allocatedBytes) {
+}
@@ -0,0 +1,116 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import io.cucumber.plugin.event.Result;
+import io.cucumber.plugin.event.TestStep;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Emits {@link ScenarioJfrEvent}/{@link StepJfrEvent} JFR events for every test case and step and
+ * measures the {@link ScenarioProfile} of each scenario.
+ * <p>
+ * A {@link Sample} is started and finished by the {@link TestCaseCollector} on the thread executing
+ * the scenario, which is what makes the per-thread allocation counter meaningful. The JFR events are
+ * only committed when a recording with these event types enabled is running; the profile is
+ * measured regardless.
+ */
+final class ScenarioProfiler {
+    private static final List<GarbageCollectorMXBean> GARBAGE_COLLECTORS = ManagementFactory.getGarbageCollectorMXBeans();
+
+    Sample start(String uri, int line, String name, Instant startedAt) {
+        return new Sample(uri, line, name, startedAt);
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : GARBAGE_COLLECTORS) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcTimeMillis() {
+        long time = 0;
+        for (GarbageCollectorMXBean collector : GARBAGE_COLLECTORS) {
+            time += Math.max(0, collector.getCollectionTime());
+        }
+        return time;
+    }
+
+    /** Bytes allocated so far by the current thread, or -1 when the JVM does not track it. */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+            if (sunThreads.isThreadAllocatedMemorySupported() && sunThreads.isThreadAllocatedMemoryEnabled()) {
+                return sunThreads.getCurrentThreadAllocatedBytes();
+            }
+        }
+        return -1;
+    }
+
+    /** Profiling state of one running test case; confined to the thread executing it. */
+    static final class Sample {
+        private final ScenarioJfrEvent scenario = new ScenarioJfrEvent();
+        private final Instant startedAt;
+        private final long gcCountAtStart = gcCount();
+        private final long gcTimeMillisAtStart = gcTimeMillis();
+        private final long allocatedAtStart = allocatedBytes();
+        /** Steps within a test case run sequentially, so one slot is enough. */
+        private StepJfrEvent step;
+
+        private Sample(String uri, int line, String name, Instant startedAt) {
+            this.startedAt = startedAt;
+            scenario.uri = uri;
+            scenario.line = line;
+            scenario.name = name;
+            scenario.begin();
+        }
+
+        void stepStarted(TestStep testStep) {
+            step = new StepJfrEvent();
+            step.uri = scenario.uri;
+            step.scenarioLine = scenario.line;
+            step.step = TestCaseCollector.describe(testStep);
+            step.codeLocation = testStep.getCodeLocation();
+            step.begin();
+        }
+
+        void stepFinished(Result result) {
+            if (step == null) {
+                return;
+            }
+            step.end();
+            if (step.shouldCommit()) {
+                step.status = TestCaseCollector.statusOf(result.getStatus());
+                step.commit();
+            }
+            step = null;
+        }
+
+        ScenarioProfile finish(Result result, Instant finishedAt) {
+            long gcTime = Duration.ofMillis(gcTimeMillis() - gcTimeMillisAtStart).toNanos();
+            long allocated = allocatedAtStart < 0 ? -1 : allocatedBytes() - allocatedAtStart;
+
+            scenario.end();
+            if (scenario.shouldCommit()) {
+                scenario.status = TestCaseCollector.statusOf(result.getStatus());
+                scenario.gcTime = gcTime;
+                scenario.allocated = allocated;
+                scenario.commit();
+            }
+
+            return new ScenarioProfile(
+                    Thread.currentThread().getName(),
+                    Duration.between(startedAt, finishedAt).toNanos(),
+                    gcCount() - gcCountAtStart,
+                    gcTime,
+                    allocated);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Outcome of one scenario as read back from the Cucumber JSON: its overall status and the time
+ * spent in its steps and hooks, including the background Cucumber writes as a separate element
+ * in front of it. Durations are in nanoseconds.
+ */
+record ScenarioResult(String id, String uri, int line, String name, String status, long duration) {
+    /** Most severe first, the same order Cucumber uses to summarize a test case. */
+    private static final List<String> SEVERITY = List.of("failed", "ambiguous", "undefined", "pending", "skipped", "passed");
+
+    String key() {
+        return Locations.key(uri, line);
+    }
+
+    boolean isFailed() {
+        return isFailed(status);
+    }
+
+    static boolean isFailed(String status) {
+        return "failed".equals(status) || "ambiguous".equals(status) || "undefined".equals(status);
+    }
+
+    /** Calls {@code visitor} with every scenario of {@code feature} and the element it was read from. */
+    static void forEach(ObjectNode feature, BiConsumer<ScenarioResult, ObjectNode> visitor) {
+        String uri = feature.path("uri").asText();
+        Outcome background = null;
+        for (JsonNode element : feature.path("elements")) {
+            if (!(element instanceof ObjectNode)) {
+                continue;
+            }
+            Outcome outcome = new Outcome();
+            outcome.add(element.path("before"));
+            for (JsonNode step : element.path("steps")) {
+                outcome.add(step.path("before"));
+                outcome.add(step);
+                outcome.add(step.path("after"));
+            }
+            outcome.add(element.path("after"));
+            if ("background".equals(element.path("type").asText())) {
+                background = outcome;
+                continue;
+            }
+            if (background != null) {
+                outcome.merge(background);
+                background = null;
+            }
+            visitor.accept(new ScenarioResult(element.path("id").asText(), uri, element.path("line").asInt(),
+                    element.path("name").asText(), outcome.status, outcome.duration), (ObjectNode) element);
+        }
+    }
+
+    private static final class Outcome {
+        String status = "passed";
+        long duration;
+
+        void add(JsonNode stepOrHooks) {
+            if (stepOrHooks.isArray()) {
+                stepOrHooks.forEach(this::add);
+                return;
+            }
+            JsonNode result = stepOrHooks.path("result");
+            if (result.isMissingNode()) {
+                return;
+            }
+            duration += result.path("duration").asLong();
+            worsen(result.path("status").asText("passed"));
+        }
+
+        void merge(Outcome other) {
+            duration += other.duration;
+            worsen(other.status);
+        }
+
+        private void worsen(String candidate) {
+            int rank = SEVERITY.indexOf(candidate);
+            if (rank >= 0 && rank < SEVERITY.indexOf(status)) {
+                status = candidate;
+            }
+        }
+    }
+}
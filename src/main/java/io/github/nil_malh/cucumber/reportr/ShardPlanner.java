@@ -0,0 +1,76 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Spreads scenarios over a number of workers so that they all finish at about the same time: the
+ * longest scenario goes first, each to the worker with the least work so far (longest processing
+ * time first). The result is never worse than 4/3 of the best possible plan.
+ */
+final class ShardPlanner {
+
+    private ShardPlanner() {
+    }
+
+    /** Scenarios of {@code durations} (any time unit) in the order they should start, longest first. */
+    static List<String> longestFirst(Map<String, Long> durations) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(durations.entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        List<String> ordered = new ArrayList<>(entries.size());
+        for (Map.Entry<String, Long> entry : entries) {
+            ordered.add(entry.getKey());
+        }
+        return ordered;
+    }
+
+    /** Splits {@code durations} into {@code workers} shards; each shard lists its scenarios longest first. */
+    static List<Shard> plan(Map<String, Long> durations, int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers must be at least 1: " + workers);
+        }
+        List<Shard> shards = new ArrayList<>(workers);
+        PriorityQueue<Shard> byLoad = new PriorityQueue<>(Comparator.comparingLong(Shard::duration).thenComparingInt(Shard::index));
+        for (int i = 0; i < workers; i++) {
+            Shard shard = new Shard(i);
+            shards.add(shard);
+            byLoad.add(shard);
+        }
+        for (String scenario : longestFirst(durations)) {
+            Shard lightest = byLoad.poll();
+            lightest.add(scenario, durations.get(scenario));
+            byLoad.add(lightest);
+        }
+        return shards;
+    }
+
+    static final class Shard {
+        private final int index;
+        private final List<String> scenarios = new ArrayList<>();
+        private long duration;
+
+        private Shard(int index) {
+            this.index = index;
+        }
+
+        private void add(String scenario, long scenarioDuration) {
+            scenarios.add(scenario);
+            duration += scenarioDuration;
+        }
+
+        int index() {
+            return index;
+        }
+
+        List<String> scenarios() {
+            return scenarios;
+        }
+
+        long duration() {
+            return duration;
+        }
+    }
+}
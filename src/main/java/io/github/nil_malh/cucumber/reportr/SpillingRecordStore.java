@@ -0,0 +1,292 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Holds finished {@link TestCaseRecord}s for the final report within a fixed heap budget.
+ * <p>
+ * Records are buffered in memory until their estimated size exceeds the budget. The buffer is then
+ * sorted into feature order ({@code uri}, {@code line}, start time) and appended to a spill file as
+ * one sorted run in a compact binary encoding. {@link #forEachInFeatureOrder} merges the runs and
+ * the remaining buffer back together, holding a single record per run in memory, so heap use
+ * stays bounded whatever the number of scenarios.
+ * <p>
+ * Not thread-safe: records are added from the {@link TestCaseCollector} writer thread and read
+ * once that thread has been stopped.
+ */
+final class SpillingRecordStore implements Closeable {
+    private static final org.slf4j.Logger LOGGER = org.slf4j.LoggerFactory.getLogger(SpillingRecordStore.class);
+
+    static final Comparator<TestCaseRecord> FEATURE_ORDER = Comparator
+            .comparing(TestCaseRecord::uri)
+            .thenComparingInt(TestCaseRecord::line)
+            .thenComparing(TestCaseRecord::startedAt);
+
+    private final long memoryBudget;
+    private final List<TestCaseRecord> buffer = new ArrayList<>();
+    private long bufferedBytes;
+    /** Start offset and record count of every sorted run in the spill file. */
+    private final List<long[]> runs = new ArrayList<>();
+    private Path spillFile;
+    private DataOutputStream spillOut;
+    private long size;
+
+    SpillingRecordStore(long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+
+    void add(TestCaseRecord record) {
+        buffer.add(record);
+        bufferedBytes += estimateSize(record);
+        size++;
+        if (bufferedBytes > memoryBudget) {
+            try {
+                spill();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not spill test case results to disk", e);
+            }
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    /** Number of sorted runs written to disk so far. */
+    int spilledRuns() {
+        return runs.size();
+    }
+
+    void forEachInFeatureOrder(RecordVisitor visitor) throws IOException {
+        buffer.sort(FEATURE_ORDER);
+        if (runs.isEmpty()) {
+            for (TestCaseRecord record : buffer) {
+                visitor.visit(record);
+            }
+            return;
+        }
+        spillOut.flush();
+
+        List<SpillCursor> spillCursors = new ArrayList<>();
+        PriorityQueue<Cursor> heads = new PriorityQueue<>((a, b) -> FEATURE_ORDER.compare(a.head, b.head));
+        try {
+            for (long[] run : runs) {
+                spillCursors.add(new SpillCursor(spillFile, run[0], run[1]));
+            }
+            List<Cursor> cursors = new ArrayList<>(spillCursors);
+            cursors.add(new BufferCursor(buffer));
+            for (Cursor cursor : cursors) {
+                if (cursor.advance()) {
+                    heads.add(cursor);
+                }
+            }
+            while (!heads.isEmpty()) {
+                Cursor cursor = heads.poll();
+                visitor.visit(cursor.head);
+                if (cursor.advance()) {
+                    heads.add(cursor);
+                }
+            }
+        } finally {
+            for (SpillCursor cursor : spillCursors) {
+                cursor.close();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.clear();
+        runs.clear();
+        if (spillOut != null) {
+            spillOut.close();
+            spillOut = null;
+        }
+        if (spillFile != null) {
+            Files.deleteIfExists(spillFile);
+            spillFile = null;
+        }
+    }
+
+    private void spill() throws IOException {
+        if (spillOut == null) {
+            spillFile = Files.createTempFile("cucumber-reportr", ".spill");
+            spillFile.toFile().deleteOnExit();
+            spillOut = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(spillFile, StandardOpenOption.APPEND)));
+        }
+        buffer.sort(FEATURE_ORDER);
+        spillOut.flush();
+        long start = Files.size(spillFile);
+        for (TestCaseRecord record : buffer) {
+            write(spillOut, record);
+        }
+        runs.add(new long[]{start, buffer.size()});
+        LOGGER.debug("Spilled {} test case results ({} bytes estimated) to {}", buffer.size(), bufferedBytes, spillFile);
+        buffer.clear();
+        bufferedBytes = 0;
+    }
+
+    /** Rough retained heap size of a record: object headers, fields and UTF-16 string contents. */
+    static long estimateSize(TestCaseRecord record) {
+        long size = 160 + chars(record.uri()) + chars(record.name()) + chars(record.status()) + chars(record.thread());
+        for (TestCaseRecord.StepRecord step : record.steps()) {
+            size += 80 + chars(step.text()) + chars(step.codeLocation()) + chars(step.status());
+        }
+        return size;
+    }
+
+    private static long chars(String value) {
+        return value == null ? 0 : 40 + 2L * value.length();
+    }
+
+    static void write(DataOutputStream out, TestCaseRecord record) throws IOException {
+        writeString(out, record.uri());
+        out.writeInt(record.line());
+        writeString(out, record.name());
+        writeString(out, record.status());
+        writeInstant(out, record.startedAt());
+        writeInstant(out, record.finishedAt());
+        writeString(out, record.thread());
+        out.writeInt(record.steps().size());
+        for (TestCaseRecord.StepRecord step : record.steps()) {
+            writeString(out, step.text());
+            writeString(out, step.codeLocation());
+            writeString(out, step.status());
+            out.writeLong(step.duration());
+        }
+        ScenarioProfile profile = record.profile();
+        out.writeBoolean(profile != null);
+        if (profile != null) {
+            writeString(out, profile.thread());
+            out.writeLong(profile.duration());
+            out.writeLong(profile.gcCount());
+            out.writeLong(profile.gcTime());
+            out.writeLong(profile.allocatedBytes());
+        }
+    }
+
+    static TestCaseRecord read(DataInputStream in) throws IOException {
+        String uri = readString(in);
+        int line = in.readInt();
+        String name = readString(in);
+        String status = readString(in);
+        Instant startedAt = readInstant(in);
+        Instant finishedAt = readInstant(in);
+        String thread = readString(in);
+        int stepCount = in.readInt();
+        List<TestCaseRecord.StepRecord> steps = new ArrayList<>(stepCount);
+        for (int i = 0; i < stepCount; i++) {
+            steps.add(new TestCaseRecord.StepRecord(readString(in), readString(in), readString(in), in.readLong()));
+        }
+        ScenarioProfile profile = in.readBoolean()
+                ? new ScenarioProfile(readString(in), in.readLong(), in.readLong(), in.readLong(), in.readLong())
+                : null;
+        return new TestCaseRecord(uri, line, name, status, startedAt, finishedAt, thread, List.copyOf(steps), profile);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeInstant(DataOutputStream out, Instant instant) throws IOException {
+        out.writeLong(instant.getEpochSecond());
+        out.writeInt(instant.getNano());
+    }
+
+    private static Instant readInstant(DataInputStream in) throws IOException {
+        return Instant.ofEpochSecond(in.readLong(), in.readInt());
+    }
+
+    @FunctionalInterface
+    interface RecordVisitor {
+        void visit(TestCaseRecord record) throws IOException;
+    }
+
+    private abstract static class Cursor {
+        TestCaseRecord head;
+
+        abstract boolean advance() throws IOException;
+    }
+
+    private static final class BufferCursor extends Cursor {
+        private final List<TestCaseRecord> records;
+        private int next;
+
+        BufferCursor(List<TestCaseRecord> records) {
+            this.records = records;
+        }
+
+        @Override
+        boolean advance() {
+            if (next == records.size()) {
+                return false;
+            }
+            head = records.get(next++);
+            return true;
+        }
+    }
+
+    private static final class SpillCursor extends Cursor implements Closeable {
+        private final DataInputStream in;
+        private long remaining;
+
+        SpillCursor(Path spillFile, long offset, long count) throws IOException {
+            FileChannel channel = FileChannel.open(spillFile, StandardOpenOption.READ).position(offset);
+            this.in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            this.remaining = count;
+        }
+
+        @Override
+        boolean advance() throws IOException {
+            if (remaining == 0) {
+                return false;
+            }
+            try {
+                head = read(in);
+            } catch (EOFException e) {
+                throw new IOException("Spill file is truncated", e);
+            }
+            remaining--;
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** JFR event spanning one test step (Gherkin step or hook) inside a {@link ScenarioJfrEvent}. */
+@Name("io.github.nil_malh.cucumber.reportr.Step")
+@Label("Cucumber Step")
+@Category({"Cucumber", "Reportr"})
+@Description("Execution of a single Cucumber test step or hook")
+@StackTrace(false)
+final class StepJfrEvent extends Event {
+    @Label("URI")
+    String uri;
+
+    @Label("Scenario Line")
+    int scenarioLine;
+
+    @Label("Step")
+    String step;
+
+    @Label("Code Location")
+    String codeLocation;
+
+    @Label("Status")
+    String status;
+}
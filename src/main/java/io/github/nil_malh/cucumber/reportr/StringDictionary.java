@@ -0,0 +1,119 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Replaces the string values that repeat all over a report (keywords, step and outline names,
+ * glue locations, tags, URIs and statuses) with indices into one shared table, written as the
+ * {@code strings} extras section. The frontend resolves the indices back to the table entries, so
+ * every distinct string is held once by the page instead of once per occurrence.
+ * <p>
+ * Only repeated values are interned: a string that occurs once costs less inline than as a table
+ * entry plus an index. Since features stream past one at a time, a value is interned when it occurs
+ * more than once in the feature at hand or also occurred in an earlier one; that first occurrence
+ * stays inline.
+ * <p>
+ * Must run after every other transformer, since they expect plain strings.
+ */
+final class StringDictionary implements FeatureTransformer, ReportSection {
+    private final Map<String, Integer> indices = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    /** Values that occurred once in an earlier feature and were left inline there. */
+    private final Set<String> seen = new HashSet<>();
+
+    @Override
+    public void transform(ObjectNode feature) {
+        Map<String, Integer> counts = new HashMap<>();
+        forEachField(feature, (node, field) -> counts.merge(node.get(field).asText(), 1, Integer::sum));
+        forEachField(feature, (node, field) -> {
+            String value = node.get(field).asText();
+            if (indices.containsKey(value) || counts.get(value) > 1 || seen.contains(value)) {
+                intern((ObjectNode) node, field, value);
+            }
+        });
+        counts.keySet().forEach(value -> {
+            if (!indices.containsKey(value)) {
+                seen.add(value);
+            }
+        });
+    }
+
+    @Override
+    public void write(JsonGenerator generator) throws IOException {
+        generator.writeStartArray();
+        for (String string : strings) {
+            generator.writeString(string);
+        }
+        generator.writeEndArray();
+    }
+
+    int size() {
+        return strings.size();
+    }
+
+    /** Calls {@code action} for each interned field of {@code feature} that holds a string. */
+    private static void forEachField(ObjectNode feature, BiConsumer<JsonNode, String> action) {
+        visit(feature, "uri", action);
+        visit(feature, "keyword", action);
+        visitTags(feature, action);
+        for (JsonNode element : feature.path("elements")) {
+            visit(element, "keyword", action);
+            visit(element, "type", action);
+            visit(element, "name", action);
+            visitTags(element, action);
+            visitHooks(element.path("before"), action);
+            for (JsonNode step : element.path("steps")) {
+                visitHooks(step.path("before"), action);
+                visit(step, "keyword", action);
+                visit(step, "name", action);
+                visitResult(step, action);
+                visitHooks(step.path("after"), action);
+            }
+            visitHooks(element.path("after"), action);
+        }
+    }
+
+    private static void visitTags(JsonNode node, BiConsumer<JsonNode, String> action) {
+        for (JsonNode tag : node.path("tags")) {
+            visit(tag, "name", action);
+        }
+    }
+
+    private static void visitHooks(JsonNode hooks, BiConsumer<JsonNode, String> action) {
+        for (JsonNode hook : hooks) {
+            visitResult(hook, action);
+        }
+    }
+
+    private static void visitResult(JsonNode stepOrHook, BiConsumer<JsonNode, String> action) {
+        visit(stepOrHook.path("match"), "location", action);
+        visit(stepOrHook.path("result"), "status", action);
+    }
+
+    private static void visit(JsonNode node, String field, BiConsumer<JsonNode, String> action) {
+        JsonNode value = node.get(field);
+        if (value != null && value.isTextual()) {
+            action.accept(node, field);
+        }
+    }
+
+    private void intern(ObjectNode node, String field, String value) {
+        int index = indices.computeIfAbsent(value, string -> {
+            seen.remove(string);
+            strings.add(string);
+            return strings.size() - 1;
+        });
+        node.put(field, index);
+    }
+}
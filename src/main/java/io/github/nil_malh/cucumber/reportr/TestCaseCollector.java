@@ -0,0 +1,183 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestStep;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.TestStepStarted;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Turns test case and step events into {@link TestCaseRecord}s and hands them to a single writer
+ * thread that feeds them to a sink.
+ * <p>
+ * With {@code cucumber.execution.parallel.enabled} events arrive on many threads at once, and
+ * Cucumber delivers them while holding its event bus lock. Handlers therefore only touch a
+ * per-test-case buffer, which is confined to the thread executing that test case, and finish with a
+ * single put on a bounded multi-producer/single-consumer queue. Everything that may block or do I/O
+ * runs on the writer thread, so the sink never needs to be thread-safe and scenarios never wait on each
+ * other's reporting. When the writer falls behind by {@code capacity} records, producers block
+ * instead of growing the heap.
+ */
+final class TestCaseCollector implements AutoCloseable {
+    private static final org.slf4j.Logger LOGGER = org.slf4j.LoggerFactory.getLogger(TestCaseCollector.class);
+    /** Poison pill telling the writer thread to stop once everything before it has been written. */
+    private static final TestCaseRecord END = new TestCaseRecord(null, 0, null, null, null, null, null, List.of(), null);
+
+    private final Map<UUID, Buffer> inFlight = new ConcurrentHashMap<>();
+    private final BlockingQueue<TestCaseRecord> queue;
+    private final Consumer<TestCaseRecord> sink;
+    /** Null unless JFR events and scenario profiles are enabled. */
+    private final ScenarioProfiler profiler;
+    private final Thread writer;
+    private boolean closed;
+
+    TestCaseCollector(int capacity, ScenarioProfiler profiler, Consumer<TestCaseRecord> sink) {
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.profiler = profiler;
+        this.sink = sink;
+        this.writer = new Thread(this::drain, "cucumber-reportr-writer");
+        this.writer.setDaemon(true);
+    }
+
+    void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestCaseStarted.class, this::onTestCaseStarted);
+        publisher.registerHandlerFor(TestStepStarted.class, this::onTestStepStarted);
+        publisher.registerHandlerFor(TestStepFinished.class, this::onTestStepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onTestCaseFinished);
+        writer.start();
+    }
+
+    void onTestCaseStarted(TestCaseStarted event) {
+        TestCase testCase = event.getTestCase();
+        String uri = Locations.relativize(testCase.getUri()).toString();
+        int line = testCase.getLocation().getLine();
+        ScenarioProfiler.Sample sample = profiler == null ? null : profiler.start(uri, line, testCase.getName(), event.getInstant());
+        inFlight.put(testCase.getId(), new Buffer(uri, line, testCase.getName(), event.getInstant(), sample));
+    }
+
+    void onTestStepStarted(TestStepStarted event) {
+        Buffer buffer = inFlight.get(event.getTestCase().getId());
+        if (buffer != null && buffer.sample != null) {
+            buffer.sample.stepStarted(event.getTestStep());
+        }
+    }
+
+    void onTestStepFinished(TestStepFinished event) {
+        Buffer buffer = inFlight.get(event.getTestCase().getId());
+        if (buffer == null) {
+            return;
+        }
+        TestStep testStep = event.getTestStep();
+        buffer.steps.add(new TestCaseRecord.StepRecord(
+                describe(testStep),
+                testStep.getCodeLocation(),
+                statusOf(event.getResult().getStatus()),
+                event.getResult().getDuration().toNanos()));
+        if (buffer.sample != null) {
+            buffer.sample.stepFinished(event.getResult());
+        }
+    }
+
+    void onTestCaseFinished(TestCaseFinished event) {
+        Buffer buffer = inFlight.remove(event.getTestCase().getId());
+        if (buffer == null) {
+            return;
+        }
+        TestCaseRecord record = new TestCaseRecord(
+                buffer.uri,
+                buffer.line,
+                buffer.name,
+                statusOf(event.getResult().getStatus()),
+                buffer.startedAt,
+                event.getInstant(),
+                Thread.currentThread().getName(),
+                List.copyOf(buffer.steps),
+                buffer.sample == null ? null : buffer.sample.finish(event.getResult(), event.getInstant()));
+        try {
+            queue.put(record);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while queueing results of {}, they will be missing from the report", record.key());
+        }
+    }
+
+    /** Waits until every queued record has reached the sink and stops the writer thread. */
+    @Override
+    public synchronized void close() {
+        if (closed || !writer.isAlive()) {
+            closed = true;
+            return;
+        }
+        closed = true;
+        try {
+            queue.put(END);
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while waiting for queued test case results to be written");
+        }
+    }
+
+    private void drain() {
+        try {
+            for (TestCaseRecord record = queue.take(); record != END; record = queue.take()) {
+                try {
+                    sink.accept(record);
+                } catch (RuntimeException e) {
+                    LOGGER.error("Failed to process results of {}", record.key(), e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static String statusOf(Status status) {
+        return status.name().toLowerCase(Locale.ROOT);
+    }
+
+    static String describe(TestStep testStep) {
+        if (testStep instanceof PickleStepTestStep) {
+            PickleStepTestStep pickleStep = (PickleStepTestStep) testStep;
+            return pickleStep.getStep().getKeyword() + pickleStep.getStep().getText();
+        }
+        if (testStep instanceof HookTestStep) {
+            return ((HookTestStep) testStep).getHookType().name().toLowerCase(Locale.ROOT);
+        }
+        return testStep.getCodeLocation();
+    }
+
+    /** Mutable per-test-case state; only ever touched by the thread executing that test case. */
+    private static final class Buffer {
+        final String uri;
+        final int line;
+        final String name;
+        final Instant startedAt;
+        final ScenarioProfiler.Sample sample;
+        final List<TestCaseRecord.StepRecord> steps = new ArrayList<>();
+
+        Buffer(String uri, int line, String name, Instant startedAt, ScenarioProfiler.Sample sample) {
+            this.uri = uri;
+            this.line = line;
+            this.name = name;
+            this.startedAt = startedAt;
+            this.sample = sample;
+        }
+    }
+}
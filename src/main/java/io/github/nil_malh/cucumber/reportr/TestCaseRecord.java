@@ -0,0 +1,39 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Immutable snapshot of a finished test case. Built on the thread that executed the scenario and
+ * handed to the {@link TestCaseCollector} writer thread, so it must not share mutable state.
+ *
+ * @param profile JVM profile of the scenario, or null when profiling is disabled
+ */
+record TestCaseRecord(
+        String uri,
+        int line,
+        String name,
+        String status,
+        Instant startedAt,
+        Instant finishedAt,
+        String thread,
+        List<StepRecord> steps,
+        ScenarioProfile profile) {
+
+    String key() {
+        return Locations.key(uri, line);
+    }
+
+    long duration() {
+        return Duration.between(startedAt, finishedAt).toNanos();
+    }
+
+    /**
+     * One executed test step, either a Gherkin step or a hook.
+     *
+     * @param duration step duration in nanoseconds, as reported by Cucumber
+     */
+    record StepRecord(String text, String codeLocation, String status, long duration) {
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes files for the next run next to the report, from the same pass that streams the report:
+ * <ul>
+ *     <li>{@code cucumber-rerun.txt}: {@code uri:line} of every failed or flaky scenario, ready to be
+ *     passed to Cucumber as {@code @target/cucumber/cucumber-rerun.txt}</li>
+ *     <li>{@code cucumber-shard-N.txt} and {@code cucumber-shards.json}: every scenario spread over the
+ *     configured number of workers by measured duration</li>
+ * </ul>
+ * A scenario is flaky when the input holds it more than once (e.g. merged rerun results) with both
+ * failing and passing outcomes.
+ */
+final class TestImpactExport implements FeatureTransformer {
+    static final String RERUN_FILE = "cucumber-rerun.txt";
+    static final String SHARDS_FILE = "cucumber-shards.json";
+
+    private final boolean rerun;
+    private final int shards;
+    private final DurationModel durationModel;
+    private final Map<String, Outcome> scenarios = new LinkedHashMap<>();
+
+    /** Plans shards with the expected durations of {@code durationModel} if there is one, else with this run's. */
+    TestImpactExport(boolean rerun, int shards, DurationModel durationModel) {
+        this.rerun = rerun;
+        this.shards = shards;
+        this.durationModel = durationModel;
+    }
+
+    @Override
+    public void transform(ObjectNode feature) {
+        ScenarioResult.forEach(feature, (result, element) -> {
+            Outcome outcome = scenarios.computeIfAbsent(result.key(), key -> new Outcome());
+            outcome.failed = result.isFailed();
+            outcome.everFailed |= outcome.failed;
+            outcome.everPassed |= "passed".equals(result.status());
+            outcome.duration = result.duration();
+        });
+    }
+
+    void writeTo(ObjectMapper mapper, File outputDir) throws IOException {
+        if (rerun) {
+            writeLines(new File(outputDir, RERUN_FILE), scenarios.entrySet().stream()
+                    .filter(entry -> entry.getValue().failed || entry.getValue().isFlaky())
+                    .map(Map.Entry::getKey)
+                    .toList());
+        }
+        if (shards > 0) {
+            Map<String, Long> durations = new LinkedHashMap<>();
+            scenarios.forEach((key, outcome) -> durations.put(key, durationModel != null ? durationModel.estimate(key) : outcome.duration));
+            List<ShardPlanner.Shard> plan = ShardPlanner.plan(durations, shards);
+            // An earlier run with more workers must not leave its extra shard files behind
+            try (DirectoryStream<Path> stale = Files.newDirectoryStream(outputDir.toPath(), "cucumber-shard-*.txt")) {
+                for (Path file : stale) {
+                    Files.delete(file);
+                }
+            }
+            try (JsonGenerator generator = mapper.getFactory().createGenerator(new File(outputDir, SHARDS_FILE), JsonEncoding.UTF8)) {
+                generator.useDefaultPrettyPrinter();
+                generator.writeStartObject();
+                generator.writeNumberField("workers", shards);
+                generator.writeArrayFieldStart("shards");
+                for (ShardPlanner.Shard shard : plan) {
+                    String file = shardFile(shard.index());
+                    writeLines(new File(outputDir, file), shard.scenarios());
+                    generator.writeStartObject();
+                    generator.writeStringField("file", file);
+                    generator.writeNumberField("duration", shard.duration());
+                    generator.writeNumberField("scenarios", shard.scenarios().size());
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        }
+    }
+
+    static String shardFile(int index) {
+        return "cucumber-shard-" + (index + 1) + ".txt";
+    }
+
+    private static void writeLines(File file, List<String> lines) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+    }
+
+    private static final class Outcome {
+        boolean failed;
+        boolean everFailed;
+        boolean everPassed;
+        long duration;
+
+        boolean isFlaky() {
+            return everFailed && everPassed;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * When and on which thread each test case ran, as measured from {@code TestCaseStarted} to
+ * {@code TestCaseFinished}. Written as the {@code timeline} extras section:
+ * <pre>
+ * {"origin": epoch millis of the first start, "threads": ["worker-1", ...],
+ *  "bars": [[start, end (micros after origin), thread index, "status", "uri:line"], ...]}
+ * </pre>
+ * Bars are flat arrays rather than objects to keep runs with 100k test cases small. The store is
+ * read twice, once to find the origin and threads and once to write the bars.
+ */
+final class TimelineSection implements ReportSection {
+    private final SpillingRecordStore records;
+
+    TimelineSection(SpillingRecordStore records) {
+        this.records = records;
+    }
+
+    @Override
+    public void write(JsonGenerator generator) throws IOException {
+        Map<String, Integer> threads = new LinkedHashMap<>();
+        Instant[] origin = {null};
+        records.forEachInFeatureOrder(record -> {
+            threads.putIfAbsent(record.thread(), threads.size());
+            if (origin[0] == null || record.startedAt().isBefore(origin[0])) {
+                origin[0] = record.startedAt();
+            }
+        });
+
+        generator.writeStartObject();
+        generator.writeNumberField("origin", origin[0] == null ? 0 : origin[0].toEpochMilli());
+        generator.writeArrayFieldStart("threads");
+        for (String thread : threads.keySet()) {
+            generator.writeString(thread);
+        }
+        generator.writeEndArray();
+        generator.writeArrayFieldStart("bars");
+        records.forEachInFeatureOrder(record -> {
+            generator.writeStartArray();
+            generator.writeNumber(micros(origin[0], record.startedAt()));
+            generator.writeNumber(micros(origin[0], record.finishedAt()));
+            generator.writeNumber(threads.get(record.thread()));
+            generator.writeString(record.status());
+            generator.writeString(record.key());
+            generator.writeEndArray();
+        });
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private static long micros(Instant origin, Instant instant) {
+        return Duration.between(origin, instant).toNanos() / 1_000;
+    }
+}
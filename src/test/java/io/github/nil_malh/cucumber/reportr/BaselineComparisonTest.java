@@ -0,0 +1,140 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Baseline Comparison Tests")
+class BaselineComparisonTest {
+
+    private static final long MS = 1_000_000L;
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should list new failures, fixes and slowdowns by scenario id")
+    void shouldCompareWithBaseline() throws IOException {
+        BaselineComparison comparison = load(feature(
+                scenario("orders;find", "passed", 100 * MS),
+                scenario("orders;cancel", "failed", 100 * MS),
+                scenario("orders;ship", "passed", 100 * MS),
+                scenario("orders;refund", "passed", 100 * MS),
+                scenario("orders;archive", "passed", 100 * MS)));
+        ObjectNode run = feature(
+                scenario("orders;find", "failed", 100 * MS),
+                scenario("orders;cancel", "passed", 100 * MS),
+                scenario("orders;ship", "passed", 400 * MS),
+                scenario("orders;refund", "passed", 120 * MS),
+                scenario("orders;track", "passed", 100 * MS));
+
+        comparison.transform(run);
+
+        JsonNode section = written(comparison);
+        assertThat(section.path("name").asText()).isEqualTo("baseline.json");
+        assertThat(section.path("matched").asInt()).isEqualTo(4);
+        assertThat(section.path("added").asInt()).isEqualTo(1);
+        assertThat(section.path("removed").asInt()).isEqualTo(1);
+        assertThat(section.path("new_failures").get(0).path("id").asText()).isEqualTo("orders;find");
+        assertThat(section.path("fixed").get(0).path("baseline_status").asText()).isEqualTo("failed");
+        assertThat(section.path("slower")).hasSize(1);
+        assertThat(section.path("slower").get(0).path("duration").asLong()).isEqualTo(400 * MS);
+        assertThat(run.path("elements").get(2).path("baseline").path("duration").asLong()).isEqualTo(100 * MS);
+        assertThat(run.path("elements").get(3).has("baseline")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should ignore slowdowns below the minimum")
+    void shouldIgnoreSmallSlowdowns() throws IOException {
+        BaselineComparison comparison = load(feature(scenario("orders;find", "passed", 10 * MS)));
+
+        comparison.transform(feature(scenario("orders;find", "passed", 50 * MS)));
+
+        assertThat(written(comparison).path("slower")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should match scenarios sharing an id in order and count backgrounds in")
+    void shouldMatchDuplicateIdsInOrder() throws IOException {
+        ObjectNode baseline = feature(scenario("orders;same", "passed", 100 * MS), scenario("orders;same", "passed", 100 * MS));
+        BaselineComparison comparison = load(baseline);
+        ObjectNode run = feature(scenario("orders;same", "passed", 100 * MS), scenario("orders;same", "passed", 100 * MS));
+        ArrayNode elements = (ArrayNode) run.path("elements");
+        ObjectNode background = scenario(null, "failed", 300 * MS).put("type", "background");
+        elements.insert(1, background);
+
+        comparison.transform(run);
+
+        JsonNode section = written(comparison);
+        assertThat(section.path("matched").asInt()).isEqualTo(2);
+        assertThat(section.path("new_failures")).hasSize(1);
+        assertThat(section.path("new_failures").get(0).path("duration").asLong()).isEqualTo(400 * MS);
+    }
+
+    @Test
+    @DisplayName("Should reject a baseline that is not a Cucumber JSON report")
+    void shouldRejectInvalidBaseline() throws IOException {
+        File file = tempDir.resolve("baseline.json").toFile();
+        mapper.writeValue(file, mapper.createObjectNode());
+
+        assertThatThrownBy(() -> BaselineComparison.load(mapper, file, ReportOptions.defaults()))
+                .isInstanceOf(IOException.class);
+    }
+
+    private BaselineComparison load(ObjectNode... features) throws IOException {
+        File file = tempDir.resolve("baseline.json").toFile();
+        ArrayNode report = mapper.createArrayNode();
+        for (ObjectNode feature : features) {
+            report.add(feature);
+        }
+        mapper.writeValue(file, report);
+        return BaselineComparison.load(mapper, file, ReportOptions.defaults());
+    }
+
+    private ObjectNode feature(ObjectNode... scenarios) {
+        ObjectNode feature = mapper.createObjectNode();
+        feature.put("uri", "features/orders.feature");
+        ArrayNode elements = feature.putArray("elements");
+        int line = 3;
+        for (ObjectNode scenario : scenarios) {
+            elements.add(scenario.put("line", line++));
+        }
+        return feature;
+    }
+
+    private ObjectNode scenario(String id, String status, long duration) {
+        ObjectNode scenario = mapper.createObjectNode();
+        if (id != null) {
+            scenario.put("id", id);
+        }
+        scenario.put("type", "scenario");
+        scenario.put("name", String.valueOf(id));
+        ArrayNode steps = scenario.putArray("steps");
+        steps.addObject().putObject("result").put("status", "passed").put("duration", duration / 2);
+        steps.addObject().putObject("result").put("status", status).put("duration", duration / 2);
+        return scenario;
+    }
+
+    private JsonNode written(BaselineComparison comparison) throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+            comparison.write(generator);
+        }
+        return mapper.readTree(out.toString());
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Compact Report Tests")
+class CompactReportTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should index features, scenarios and steps")
+    void shouldIndexHierarchy() throws IOException {
+        CompactReport report = CompactReport.read(report());
+
+        assertThat(report.featureCount()).isEqualTo(3);
+        assertThat(report.scenarioCount()).isEqualTo(3);
+        assertThat(report.stepCount()).isEqualTo(5);
+        assertThat(report.featureName(0)).isEqualTo("Orders");
+        assertThat(report.firstScenario(0)).isEqualTo(0);
+        assertThat(report.scenarioEnd(0)).isEqualTo(2);
+        // The empty feature sits between the two others
+        assertThat(report.firstScenario(1)).isEqualTo(report.scenarioEnd(1)).isEqualTo(2);
+        assertThat(report.scenarioKey(0)).isEqualTo("features/orders.feature:6");
+        assertThat(report.scenarioKey(2)).isEqualTo("features/payments.feature:3");
+        // Background step first, then the scenario's own
+        assertThat(report.firstStep(0)).isEqualTo(0);
+        assertThat(report.stepEnd(0)).isEqualTo(2);
+        assertThat(report.stepName(0)).isEqualTo("a logged in user");
+        assertThat(report.stepLocation(1)).isEqualTo("Orders.checkout()");
+        assertThat(report.stepLocation(3)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should aggregate statuses and durations")
+    void shouldAggregate() throws IOException {
+        CompactReport report = CompactReport.read(report());
+
+        assertThat(report.scenarioStatus(0)).isEqualTo("failed");
+        assertThat(report.scenarioDuration(0)).isEqualTo(40);
+        assertThat(report.scenarioStatusCounts()).containsExactly(Map.entry("passed", 1), Map.entry("failed", 1), Map.entry("undefined", 1));
+        assertThat(report.stepStatusCounts()).containsExactly(Map.entry("passed", 3), Map.entry("failed", 1), Map.entry("undefined", 1));
+        assertThat(report.totalDuration()).isEqualTo(110);
+        assertThat(report.featureDuration(0)).isEqualTo(100);
+        assertThat(report.featureDuration(1)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should time each step definition")
+    void shouldTimeStepDefinitions() throws IOException {
+        CompactReport report = CompactReport.read(report());
+
+        assertThat(report.stepDefinitionTimings()).containsExactly(
+                new CompactReport.StepDefinitionTiming("Orders.checkout()", 2, 80, 50),
+                new CompactReport.StepDefinitionTiming("Users.login()", 2, 20, 10));
+        assertThat(report.stepDefinitionTimings().get(0).mean()).isEqualTo(40);
+    }
+
+    private File report() throws IOException {
+        String json = """
+                [
+                  {"name": "Orders", "uri": "features/orders.feature", "elements": [
+                    {"type": "background", "line": 3, "steps": [
+                      {"name": "a logged in user", "match": {"location": "Users.login()"}, "result": {"status": "passed", "duration": 10}}
+                    ]},
+                    {"type": "scenario", "id": "orders;checkout", "name": "Checkout", "line": 6, "steps": [
+                      {"name": "I check out", "match": {"location": "Orders.checkout()"}, "result": {"status": "failed", "duration": 30}}
+                    ]},
+                    {"type": "background", "line": 3, "steps": [
+                      {"name": "a logged in user", "match": {"location": "Users.login()"}, "result": {"status": "passed", "duration": 10}}
+                    ]},
+                    {"type": "scenario", "id": "orders;pay", "name": "Pay", "line": 9, "steps": [
+                      {"name": "I pay", "match": {}, "result": {"status": "undefined"}},
+                      {"name": "I check out", "match": {"location": "Orders.checkout()"}, "result": {"status": "passed", "duration": 50}}
+                    ]}
+                  ]},
+                  {"name": "Empty", "uri": "features/empty.feature", "elements": []},
+                  {"name": "Payments", "uri": "features/payments.feature", "elements": [
+                    {"type": "scenario", "id": "payments;refund", "name": "Refund", "line": 3, "before": [
+                      {"match": {"location": "Hooks.setUp()"}, "result": {"status": "passed", "duration": 10}}
+                    ]}
+                  ]}
+                ]
+                """;
+        File file = tempDir.resolve("cucumber.json").toFile();
+        Files.writeString(file.toPath(), json);
+        return file;
+    }
+}
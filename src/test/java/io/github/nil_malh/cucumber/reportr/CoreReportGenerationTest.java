@@ -1,21 +1,57 @@
 package io.github.nil_malh.cucumber.reportr;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DisplayName("Core Report Generation Tests")
 class CoreReportGenerationTest {
 
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String OUTLINE_JSON = """
+        [{"uri": "features/orders.feature", "id": "orders", "keyword": "Feature", "name": "Orders", "line": 1,
+          "tags": [{"name": "@orders", "line": 1}],
+          "elements": [
+            {"keyword": "Background", "type": "background", "name": "", "line": 3, "steps": [
+              {"keyword": "Given ", "name": "a logged in user", "line": 4, "match": {"location": "Steps.login()"},
+               "result": {"status": "passed", "duration": 1000}}]},
+            {"id": "orders;order-items;;2", "keyword": "Scenario Outline", "type": "scenario", "name": "Order items", "line": 12,
+             "tags": [{"name": "@smoke", "line": 6}],
+             "before": [{"match": {"location": "Hooks.open()"}, "result": {"status": "passed", "duration": 10}}],
+             "steps": [
+              {"keyword": "When ", "name": "I order 1 items", "line": 8, "match": {"location": "Steps.order(int)",
+               "arguments": [{"val": "1", "offset": 8}]}, "result": {"status": "passed", "duration": 2000}}]},
+            {"keyword": "Background", "type": "background", "name": "", "line": 3, "steps": [
+              {"keyword": "Given ", "name": "a logged in user", "line": 4, "match": {"location": "Steps.login()"},
+               "result": {"status": "passed", "duration": 1200}}]},
+            {"id": "orders;order-items;;3", "keyword": "Scenario Outline", "type": "scenario", "name": "Order items", "line": 13,
+             "tags": [{"name": "@smoke", "line": 6}],
+             "before": [{"match": {"location": "Hooks.open()"}, "result": {"status": "passed", "duration": 12}}],
+             "steps": [
+              {"keyword": "When ", "name": "I order 2 items", "line": 8, "match": {"location": "Steps.order(int)",
+               "arguments": [{"val": "2", "offset": 8}]}, "result": {"status": "failed", "duration": 2500,
+               "error_message": "java.lang.AssertionError: out of stock"}}]}
+          ]}]
+        """;
+
     @TempDir
     Path tempDir;
 
@@ -159,6 +195,20 @@ class CoreReportGenerationTest {
         assertThat(reportFile).doesNotExist();
     }
 
+    @Test
+    @DisplayName("Should not leave a partial report behind when the JSON is truncated")
+    void shouldNotLeavePartialReportForTruncatedJson() throws IOException {
+        // Given
+        Files.writeString(jsonFile.toPath(), validJson.substring(0, validJson.length() / 2), StandardCharsets.UTF_8);
+
+        // When
+        Core.generatePrettyReport(jsonFile, outputDir);
+
+        // Then
+        assertThat(new File(outputDir, "cucumber-pretty-report.html")).doesNotExist();
+        assertThat(new File(outputDir, "cucumber-pretty-report.html.tmp")).doesNotExist();
+    }
+
     @Test
     @DisplayName("Should sanitize JSON with Jackson")
     void shouldSanitizeJsonWithJackson() throws IOException {
@@ -321,6 +371,232 @@ class CoreReportGenerationTest {
         assertThat(reportContent).contains("AssertionError");
     }
 
+    @Test
+    @DisplayName("Should inject report extras next to the report data")
+    void shouldInjectReportExtras() throws IOException {
+        // Given
+        Files.writeString(jsonFile.toPath(), validJson, StandardCharsets.UTF_8);
+        ScenarioProfile profile = new ScenarioProfile("worker-1", 4_500_000, 1, 2_000_000, 1024);
+
+        // When
+        Core.generatePrettyReport(jsonFile, outputDir, ReportOptions.defaults(), Map.of("profiles", Map.of("features/sample.feature:3", profile)));
+
+        // Then
+        File reportFile = new File(outputDir, "cucumber-pretty-report.html");
+        String reportContent = Files.readString(reportFile.toPath(), StandardCharsets.UTF_8);
+        assertThat(reportContent).contains("\"features/sample.feature:3\":{\"thread\":\"worker-1\"");
+        assertThat(reportContent).contains("\"gc_time\":2000000");
+        assertThat(reportContent).doesNotContain("/* CUCUMBER_REPORT_EXTRAS_PLACEHOLDER */");
+    }
+
+    @Test
+    @DisplayName("Should update expected durations from passing scenarios only")
+    void shouldRecordOnlyPassingScenarioDurations() throws IOException {
+        // Given
+        Files.writeString(jsonFile.toPath(), """
+            [{"uri": "features/orders.feature", "name": "Orders", "elements": [
+              {"type": "scenario", "id": "orders;a", "line": 3, "steps": [{"result": {"status": "passed", "duration": 100}}]},
+              {"type": "scenario", "id": "orders;b", "line": 6, "steps": [{"result": {"status": "failed", "duration": 5}}]},
+              {"type": "scenario", "id": "orders;c", "line": 9, "steps": [{"result": {"status": "skipped", "duration": 0}}]}
+            ]}]
+            """, StandardCharsets.UTF_8);
+        Path durations = tempDir.resolve("cucumber-durations.json");
+        DurationModel seed = DurationModel.empty(0.5);
+        seed.record("features/orders.feature:3", 1_000);
+        seed.record("features/orders.feature:6", 1_000);
+        seed.record("features/orders.feature:9", 1_000);
+        seed.save(durations);
+        Properties properties = new Properties();
+        properties.setProperty(ReportOptions.DURATION_MODEL, durations.toString());
+        properties.setProperty(ReportOptions.DURATION_WEIGHT, "0.5");
+
+        // When
+        Core.generatePrettyReport(jsonFile, outputDir, ReportOptions.from(properties), Map.of());
+
+        // Then
+        DurationModel model = DurationModel.load(durations, 0.5);
+        assertThat(model.estimate("features/orders.feature:3")).isEqualTo(550);
+        assertThat(model.estimate("features/orders.feature:6")).isEqualTo(1_000);
+        assertThat(model.estimate("features/orders.feature:9")).isEqualTo(1_000);
+    }
+
+    @Test
+    @DisplayName("Should write interned and compacted data that resolves back to the original features")
+    void shouldRoundTripStringDictionaryAndOutlineCompaction() throws IOException {
+        // Given
+        Files.writeString(jsonFile.toPath(), OUTLINE_JSON, StandardCharsets.UTF_8);
+        Properties properties = new Properties();
+        properties.setProperty(ReportOptions.STRING_DICTIONARY, "true");
+        properties.setProperty(ReportOptions.OUTLINE_COMPACTION, "true");
+
+        // When
+        Core.generatePrettyReport(jsonFile, outputDir, ReportOptions.from(properties), Map.of(), () -> page(
+                "DATA = /* CUCUMBER_REPORT_DATA_PLACEHOLDER */;\nEXTRAS = /* CUCUMBER_REPORT_EXTRAS_PLACEHOLDER */ null;"));
+
+        // Then
+        String html = Files.readString(new File(outputDir, "cucumber-pretty-report.html").toPath(), StandardCharsets.UTF_8);
+        ArrayNode data = (ArrayNode) valueAfter(html, "DATA = ");
+        JsonNode strings = valueAfter(html, "EXTRAS = ").path("strings");
+        assertThat(data.get(0).path("uri").isTextual()).isTrue();
+        assertThat(data.get(0).path("elements").get(2).has(OutlineCompactor.TEMPLATE)).isTrue();
+        assertThat(strings.isArray()).isTrue();
+        assertThat(strings).isNotEmpty();
+        assertThat(expandOutlineRows(resolveStrings(data, strings))).isEqualTo(MAPPER.readTree(OUTLINE_JSON));
+    }
+
+    @Test
+    @DisplayName("Should write strings inline when the template has no extras placeholder after the data")
+    void shouldSkipStringDictionaryWhenExtrasComeFirst() throws IOException {
+        // Given
+        Files.writeString(jsonFile.toPath(), OUTLINE_JSON, StandardCharsets.UTF_8);
+        Properties properties = new Properties();
+        properties.setProperty(ReportOptions.STRING_DICTIONARY, "true");
+        properties.setProperty(ReportOptions.OUTLINE_COMPACTION, "true");
+
+        // When
+        Core.generatePrettyReport(jsonFile, outputDir, ReportOptions.from(properties), Map.of(), () -> page(
+                "EXTRAS = /* CUCUMBER_REPORT_EXTRAS_PLACEHOLDER */ null;\nDATA = /* CUCUMBER_REPORT_DATA_PLACEHOLDER */;"));
+
+        // Then
+        String html = Files.readString(new File(outputDir, "cucumber-pretty-report.html").toPath(), StandardCharsets.UTF_8);
+        ArrayNode data = (ArrayNode) valueAfter(html, "DATA = ");
+        assertThat(data.get(0).path("uri").isTextual()).isTrue();
+        assertThat(html).doesNotContain("\"strings\"");
+        assertThat(expandOutlineRows(data)).isEqualTo(MAPPER.readTree(OUTLINE_JSON));
+    }
+
+    @Test
+    @DisplayName("Should leave out failure clusters when the template has no extras placeholder after the data")
+    void shouldSkipFailureClustersWhenExtrasComeFirst() throws IOException {
+        // Given
+        Files.writeString(jsonFile.toPath(), validJson.replace("\"passed\"", "\"failed\""), StandardCharsets.UTF_8);
+        Properties properties = new Properties();
+        properties.setProperty(ReportOptions.FAILURE_CLUSTERING, "true");
+
+        // When
+        Core.generatePrettyReport(jsonFile, outputDir, ReportOptions.from(properties), Map.of("profiles", Map.of()), () -> page(
+                "EXTRAS = /* CUCUMBER_REPORT_EXTRAS_PLACEHOLDER */ null;\nDATA = /* CUCUMBER_REPORT_DATA_PLACEHOLDER */;"));
+
+        // Then
+        String html = Files.readString(new File(outputDir, "cucumber-pretty-report.html").toPath(), StandardCharsets.UTF_8);
+        assertThat(valueAfter(html, "EXTRAS = ")).isEqualTo(MAPPER.readTree("{\"profiles\":{}}"));
+        assertThat(valueAfter(html, "DATA = ")).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should compare with a baseline report given as a file")
+    void shouldCompareWithBaselineFile() throws IOException {
+        // Given
+        Files.writeString(jsonFile.toPath(), validJson.replace("\"passed\"", "\"failed\""), StandardCharsets.UTF_8);
+        File baselineFile = tempDir.resolve("baseline.json").toFile();
+        Files.writeString(baselineFile.toPath(), validJson, StandardCharsets.UTF_8);
+
+        // When
+        Core.generatePrettyReport(jsonFile, outputDir, baselineFile);
+
+        // Then
+        String reportContent = Files.readString(new File(outputDir, "cucumber-pretty-report.html").toPath(), StandardCharsets.UTF_8);
+        JsonNode data = valueAfter(reportContent, "window.CUCUMBER_REPORT_DATA = ");
+        JsonNode baseline = valueAfter(reportContent, "window.CUCUMBER_REPORT_EXTRAS = ").path("baseline");
+        assertThat(data.get(0).path("elements").get(0).path("baseline").path("status").asText()).isEqualTo("passed");
+        assertThat(baseline.path("name").asText()).isEqualTo("baseline.json");
+        assertThat(baseline.path("matched").asInt()).isEqualTo(1);
+        assertThat(baseline.path("new_failures")).hasSize(1);
+        assertThat(baseline.path("new_failures").get(0).path("baseline_status").asText()).isEqualTo("passed");
+    }
+
+    @Test
+    @DisplayName("Should leave out the baseline comparison when the template has no extras placeholder after the data")
+    void shouldSkipBaselineSectionWhenExtrasComeFirst() throws IOException {
+        // Given
+        Files.writeString(jsonFile.toPath(), validJson.replace("\"passed\"", "\"failed\""), StandardCharsets.UTF_8);
+        File baselineFile = tempDir.resolve("baseline.json").toFile();
+        Files.writeString(baselineFile.toPath(), validJson, StandardCharsets.UTF_8);
+        Properties properties = new Properties();
+        properties.setProperty(ReportOptions.BASELINE, baselineFile.getPath());
+
+        // When
+        Core.generatePrettyReport(jsonFile, outputDir, ReportOptions.from(properties), Map.of(), () -> page(
+                "EXTRAS = /* CUCUMBER_REPORT_EXTRAS_PLACEHOLDER */ null;\nDATA = /* CUCUMBER_REPORT_DATA_PLACEHOLDER */;"));
+
+        // Then
+        String html = Files.readString(new File(outputDir, "cucumber-pretty-report.html").toPath(), StandardCharsets.UTF_8);
+        assertThat(html).contains("EXTRAS = /* CUCUMBER_REPORT_EXTRAS_PLACEHOLDER */ null;");
+        JsonNode data = valueAfter(html, "DATA = ");
+        assertThat(data.get(0).path("elements").get(0).path("baseline").path("status").asText()).isEqualTo("passed");
+    }
+
+    private static InputStream page(String script) {
+        return new ByteArrayInputStream(("<html><script>\n" + script + "\n</script></html>").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** The JSON value that follows {@code marker} in {@code html}. */
+    private static JsonNode valueAfter(String html, String marker) throws IOException {
+        int at = html.indexOf(marker);
+        assertThat(at).isNotNegative();
+        try (JsonParser parser = MAPPER.getFactory().createParser(html.substring(at + marker.length()))) {
+            return MAPPER.readTree(parser);
+        }
+    }
+
+    /** Same fields as the frontend's {@code resolveStrings}. */
+    private static ArrayNode resolveStrings(ArrayNode report, JsonNode strings) {
+        for (JsonNode feature : report) {
+            resolve(feature, "uri", strings);
+            resolve(feature, "keyword", strings);
+            resolveTags(feature, strings);
+            for (JsonNode element : feature.path("elements")) {
+                resolve(element, "keyword", strings);
+                resolve(element, "type", strings);
+                resolve(element, "name", strings);
+                resolveTags(element, strings);
+                resolveHooks(element.path("before"), strings);
+                for (JsonNode step : element.path("steps")) {
+                    resolveHooks(step.path("before"), strings);
+                    resolve(step, "keyword", strings);
+                    resolve(step, "name", strings);
+                    resolveResult(step, strings);
+                    resolveHooks(step.path("after"), strings);
+                }
+                resolveHooks(element.path("after"), strings);
+            }
+        }
+        return report;
+    }
+
+    private static void resolveTags(JsonNode node, JsonNode strings) {
+        node.path("tags").forEach(tag -> resolve(tag, "name", strings));
+    }
+
+    private static void resolveHooks(JsonNode hooks, JsonNode strings) {
+        hooks.forEach(hook -> resolveResult(hook, strings));
+    }
+
+    private static void resolveResult(JsonNode stepOrHook, JsonNode strings) {
+        resolve(stepOrHook.path("match"), "location", strings);
+        resolve(stepOrHook.path("result"), "status", strings);
+    }
+
+    private static void resolve(JsonNode node, String field, JsonNode strings) {
+        if (node.path(field).isInt()) {
+            ((ObjectNode) node).set(field, strings.get(node.path(field).asInt()));
+        }
+    }
+
+    /** Same as the frontend's {@code expandOutlineRows}. */
+    private static ArrayNode expandOutlineRows(ArrayNode report) {
+        for (JsonNode feature : report) {
+            ArrayNode elements = (ArrayNode) feature.path("elements");
+            for (int i = 0; i < elements.size(); i++) {
+                JsonNode element = elements.get(i);
+                if (element.path(OutlineCompactor.TEMPLATE).isInt()) {
+                    elements.set(i, OutlineCompactorTest.apply(elements.get(element.path(OutlineCompactor.TEMPLATE).asInt()), element));
+                }
+            }
+        }
+        return report;
+    }
+
     private void createMockHtmlTemplate() throws IOException {
         createMockHtmlTemplate(htmlTemplate);
     }
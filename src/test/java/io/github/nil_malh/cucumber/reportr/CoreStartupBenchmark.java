@@ -0,0 +1,88 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import io.cucumber.plugin.event.EventHandler;
+import io.cucumber.plugin.event.EventPublisher;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Measures what the plugin costs a forked JVM: constructing {@link Core} and wiring it to the event
+ * bus, cold (including class loading) and warm, and generating the report for a one-scenario run,
+ * again cold (first use of Jackson) and warm. Not a test; run it in a fresh JVM so the cold numbers
+ * mean something, e.g.
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=io.github.nil_malh.cucumber.reportr.CoreStartupBenchmark
+ * </pre>
+ */
+public final class CoreStartupBenchmark {
+    private static final int WARM_ITERATIONS = 1000;
+    private static final String TINY_REPORT = """
+            [{"uri": "features/tiny.feature", "name": "Tiny", "keyword": "Feature", "line": 1, "elements": [
+              {"id": "tiny;one", "name": "One", "keyword": "Scenario", "line": 3, "type": "scenario", "steps": [
+                {"keyword": "Given ", "name": "a step", "line": 4, "result": {"status": "passed", "duration": 1000}}
+              ]}
+            ]}]
+            """;
+
+    private CoreStartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("cucumber-reportr-benchmark");
+        File outputDir = dir.resolve("report").toFile();
+        EventPublisher publisher = new NoOpEventPublisher();
+
+        long start = System.nanoTime();
+        new Core(outputDir).setEventPublisher(publisher);
+        report("plugin init, cold", System.nanoTime() - start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < WARM_ITERATIONS; i++) {
+            new Core(outputDir).setEventPublisher(publisher);
+        }
+        report("plugin init, warm", (System.nanoTime() - start) / WARM_ITERATIONS);
+
+        File jsonFile = dir.resolve("cucumber.json").toFile();
+        Files.writeString(jsonFile.toPath(), TINY_REPORT, StandardCharsets.UTF_8);
+        ReportOptions options = ReportOptions.defaults();
+        start = System.nanoTime();
+        Core.generatePrettyReport(jsonFile, outputDir, options, Map.of());
+        report("tiny report, cold", System.nanoTime() - start);
+
+        start = System.nanoTime();
+        Core.generatePrettyReport(jsonFile, outputDir, options, Map.of());
+        report("tiny report, warm", System.nanoTime() - start);
+
+        deleteRecursively(dir.toFile());
+    }
+
+    private static void report(String what, long nanos) {
+        System.out.printf("%-20s %10.3f ms%n", what, nanos / 1_000_000.0);
+    }
+
+    private static void deleteRecursively(File file) throws IOException {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        Files.deleteIfExists(file.toPath());
+    }
+
+    private static final class NoOpEventPublisher implements EventPublisher {
+        @Override
+        public <T> void registerHandlerFor(Class<T> eventType, EventHandler<T> handler) {
+        }
+
+        @Override
+        public <T> void removeHandlerFor(Class<T> eventType, EventHandler<T> handler) {
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Duration Model Tests")
+class DurationModelTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should move estimates towards new measurements by the configured weight")
+    void shouldAverageMeasurements() {
+        DurationModel model = DurationModel.empty(0.5);
+
+        model.record("a.feature:3", 100);
+        model.record("a.feature:3", 200);
+        model.record("a.feature:3", 200);
+
+        assertThat(model.estimate("a.feature:3")).isEqualTo(175);
+    }
+
+    @Test
+    @DisplayName("Should keep estimates across runs")
+    void shouldPersistEstimates() throws IOException {
+        Path file = tempDir.resolve("durations/cucumber-durations.json");
+        DurationModel model = DurationModel.load(file, 0.3);
+        model.record("a.feature:3", 1_000);
+        model.record("b.feature:7", 2_000);
+
+        model.save(file);
+        DurationModel reloaded = DurationModel.load(file, 0.3);
+
+        assertThat(reloaded.size()).isEqualTo(2);
+        assertThat(reloaded.estimate("b.feature:7")).isEqualTo(2_000);
+        assertThat(tempDir.resolve("durations").toFile().list())
+                .containsExactlyInAnyOrder("cucumber-durations.json", "cucumber-durations.json.lock");
+    }
+
+    @Test
+    @DisplayName("Should merge the measurements of forks saving to the same file")
+    void shouldMergeConcurrentSaves() throws IOException {
+        Path file = tempDir.resolve("cucumber-durations.json");
+        DurationModel seed = DurationModel.empty(0.5);
+        seed.record("a.feature:3", 100);
+        seed.save(file);
+        DurationModel first = DurationModel.load(file, 0.5);
+        DurationModel second = DurationModel.load(file, 0.5);
+        first.record("a.feature:3", 300);
+        second.record("b.feature:7", 2_000);
+
+        first.save(file);
+        second.save(file);
+        DurationModel reloaded = DurationModel.load(file, 0.5);
+
+        assertThat(reloaded.size()).isEqualTo(2);
+        assertThat(reloaded.estimate("a.feature:3")).isEqualTo(200);
+        assertThat(reloaded.estimate("b.feature:7")).isEqualTo(2_000);
+        assertThat(second.estimate("a.feature:3")).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Should replace a damaged file with the new measurements")
+    void shouldReplaceUnreadableFileOnSave() throws IOException {
+        Path file = tempDir.resolve("cucumber-durations.json");
+        Files.writeString(file, "{\"scenarios\": {\"a.feature:3\"");
+        DurationModel model = DurationModel.empty(0.5);
+        model.record("b.feature:7", 2_000);
+
+        model.save(file);
+        DurationModel reloaded = DurationModel.load(file, 0.5);
+
+        assertThat(reloaded.size()).isEqualTo(1);
+        assertThat(reloaded.estimate("b.feature:7")).isEqualTo(2_000);
+    }
+
+    @Test
+    @DisplayName("Should order and partition scenarios longest first, unknown ones at the median")
+    void shouldScheduleLongestFirst() {
+        DurationModel model = DurationModel.empty(0.3);
+        model.record("a.feature:1", 10);
+        model.record("a.feature:2", 50);
+        model.record("a.feature:3", 30);
+
+        List<String> scenarios = List.of("a.feature:1", "a.feature:2", "a.feature:3", "new.feature:1");
+
+        assertThat(model.contains("new.feature:1")).isFalse();
+        assertThat(model.estimate("new.feature:1")).isEqualTo(30);
+        assertThat(model.longestFirst(scenarios)).containsExactly("a.feature:2", "a.feature:3", "new.feature:1", "a.feature:1");
+        assertThat(model.partition(scenarios, 2)).containsExactly(
+                List.of("a.feature:2", "a.feature:1"),
+                List.of("a.feature:3", "new.feature:1"));
+    }
+
+    @Test
+    @DisplayName("Should key scenarios the way the report does")
+    void shouldKeyLikeTheReport() {
+        assertThat(DurationModel.key(URI.create("classpath:features/a.feature"), 3)).isEqualTo("classpath:features/a.feature:3");
+    }
+
+    @Test
+    @DisplayName("Should reject weights outside (0, 1]")
+    void shouldRejectInvalidWeight() {
+        assertThatThrownBy(() -> DurationModel.empty(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
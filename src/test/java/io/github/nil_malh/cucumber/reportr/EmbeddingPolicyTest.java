@@ -0,0 +1,155 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Embedding Policy Tests")
+class EmbeddingPolicyTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should be inactive by default")
+    void shouldBeInactiveByDefault() {
+        assertThat(new EmbeddingPolicy(ReportOptions.defaults()).isActive()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should downscale images larger than the maximum dimension")
+    void shouldDownscaleLargeImages() throws IOException {
+        ObjectNode feature = feature("passed", embedding("image/png", png(800, 400)));
+
+        policy(ReportOptions.IMAGE_MAX_DIMENSION, "200").transform(feature);
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(decode(firstEmbedding(feature))));
+        assertThat(image.getWidth()).isEqualTo(200);
+        assertThat(image.getHeight()).isEqualTo(100);
+        assertThat(firstEmbedding(feature).path("mime_type").asText()).isEqualTo("image/png");
+    }
+
+    @Test
+    @DisplayName("Should keep images that already fit")
+    void shouldKeepSmallImages() throws IOException {
+        String data = png(100, 50);
+        ObjectNode feature = feature("passed", embedding("image/png", data));
+
+        policy(ReportOptions.IMAGE_MAX_DIMENSION, "200").transform(feature);
+
+        assertThat(firstEmbedding(feature).path("data").asText()).isEqualTo(data);
+    }
+
+    @Test
+    @DisplayName("Should keep head and tail of long text attachments and output")
+    void shouldTruncateLongText() {
+        String log = "HEAD" + "x".repeat(10_000) + "TAIL";
+        ObjectNode feature = feature("passed", embedding("text/plain", Base64.getEncoder().encodeToString(log.getBytes(StandardCharsets.UTF_8))));
+        ((ObjectNode) step(feature)).putArray("output").add(log);
+
+        policy(ReportOptions.TEXT_MAX_SIZE, "100").transform(feature);
+
+        String attachment = new String(decode(firstEmbedding(feature)), StandardCharsets.UTF_8);
+        assertThat(attachment).startsWith("HEAD").endsWith("TAIL").contains("characters truncated").hasSizeLessThan(200);
+        assertThat(step(feature).path("output").get(0).asText()).isEqualTo(attachment);
+    }
+
+    @Test
+    @DisplayName("Should keep text that is too little over the limit to get shorter by truncating")
+    void shouldKeepTextSlightlyOverLimit() {
+        String log = "x".repeat(110);
+        ObjectNode feature = feature("passed", embedding("text/plain", Base64.getEncoder().encodeToString(log.getBytes(StandardCharsets.UTF_8))));
+        ((ObjectNode) step(feature)).putArray("output").add(log);
+
+        policy(ReportOptions.TEXT_MAX_SIZE, "100").transform(feature);
+
+        assertThat(new String(decode(firstEmbedding(feature)), StandardCharsets.UTF_8)).isEqualTo(log);
+        assertThat(step(feature).path("output").get(0).asText()).isEqualTo(log);
+    }
+
+    @Test
+    @DisplayName("Should not split surrogate pairs when truncating")
+    void shouldNotSplitSurrogatePairs() {
+        String text = "😀".repeat(50);
+
+        String truncated = EmbeddingPolicy.truncate(text, 11);
+
+        assertThat(truncated).doesNotContain("�");
+        assertThat(truncated.codePoints().filter(codePoint -> codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE).count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should omit attachments of passing steps before those of failed steps when over budget")
+    void shouldOmitPassingAttachmentsFirst() {
+        String big = Base64.getEncoder().encodeToString(new byte[2000]);
+        ObjectNode feature = feature("passed", embedding("application/octet-stream", big));
+        ArrayNode steps = (ArrayNode) feature.path("elements").get(0).path("steps");
+        ObjectNode failedStep = steps.addObject();
+        failedStep.putObject("result").put("status", "failed");
+        failedStep.putArray("embeddings").add(embedding("application/octet-stream", big));
+
+        policy(ReportOptions.SCENARIO_ATTACHMENT_BUDGET, "3000").transform(feature);
+
+        assertThat(firstEmbedding(feature).path("mime_type").asText()).isEqualTo("text/plain");
+        assertThat(new String(decode(firstEmbedding(feature)), StandardCharsets.UTF_8)).contains("omitted");
+        assertThat(failedStep.path("embeddings").get(0).path("data").asText()).isEqualTo(big);
+    }
+
+    private static EmbeddingPolicy policy(String key, String value) {
+        Properties properties = new Properties();
+        properties.setProperty(key, value);
+        return new EmbeddingPolicy(ReportOptions.from(properties));
+    }
+
+    private ObjectNode feature(String status, ObjectNode embedding) {
+        ObjectNode feature = mapper.createObjectNode();
+        ObjectNode step = feature.putArray("elements").addObject().putArray("steps").addObject();
+        step.putObject("result").put("status", status);
+        step.putArray("embeddings").add(embedding);
+        return feature;
+    }
+
+    private ObjectNode embedding(String mimeType, String data) {
+        ObjectNode embedding = mapper.createObjectNode();
+        embedding.put("mime_type", mimeType);
+        embedding.put("data", data);
+        return embedding;
+    }
+
+    private static JsonNode step(ObjectNode feature) {
+        return feature.path("elements").get(0).path("steps").get(0);
+    }
+
+    private static JsonNode firstEmbedding(ObjectNode feature) {
+        return step(feature).path("embeddings").get(0);
+    }
+
+    private static byte[] decode(JsonNode embedding) {
+        return Base64.getDecoder().decode(embedding.path("data").asText());
+    }
+
+    private static String png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, (x * 31) ^ (y * 17));
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return Base64.getEncoder().encodeToString(out.toByteArray());
+    }
+}
@@ -0,0 +1,142 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Failure Clusterer Tests")
+class FailureClustererTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should ignore line numbers, ids and timestamps in the signature")
+    void shouldNormalizeRunSpecificNoise() {
+        String first = trace("Order 12345 not found at 2024-03-01T10:15:30Z (id 3f2b9c1e-8d4a-4b7e-9c3d-1a2b3c4d5e6f)", 42);
+        String second = trace("Order 98765 not found at 2024-03-02T11:00:01.123+02:00 (id 7a1b2c3d-4e5f-4a6b-8c7d-9e0f1a2b3c4d)", 57);
+
+        assertThat(FailureClusterer.signature(first)).isEqualTo(FailureClusterer.signature(second));
+    }
+
+    @Test
+    @DisplayName("Should keep different failures apart")
+    void shouldSeparateDifferentFailures() {
+        assertThat(FailureClusterer.signature(trace("Order not found", 42)))
+                .isNotEqualTo(FailureClusterer.signature(trace("Payment declined", 42)));
+    }
+
+    @Test
+    @DisplayName("Should count failures per cluster and tag every failed result")
+    void shouldClusterFailures() throws IOException {
+        FailureClusterer clusterer = new FailureClusterer(false);
+        ObjectNode feature = feature(trace("Order 1001 not found", 10), trace("Order 2002 not found", 11), trace("Payment declined", 12));
+
+        clusterer.transform(feature);
+
+        assertThat(clusterer.clusterCount()).isEqualTo(2);
+        assertThat(result(feature, 0).path("error_signature").asText()).isEqualTo(result(feature, 1).path("error_signature").asText());
+        assertThat(result(feature, 1).path("error_message").asText()).contains("at com.example.Steps.check");
+
+        JsonNode clusters = written(clusterer);
+        assertThat(clusters).hasSize(2);
+        assertThat(clusters.get(0).path("count").asInt()).isEqualTo(2);
+        assertThat(clusters.get(0).path("message").asText()).isEqualTo("java.lang.AssertionError: Order 1001 not found");
+        assertThat(clusters.get(0).path("uri").asText()).isEqualTo("classpath:features/orders.feature");
+        assertThat(clusters.get(0).path("line").asInt()).isEqualTo(3);
+        assertThat(clusters.get(1).path("count").asInt()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep repeated stack traces only once when deduplicating")
+    void shouldDeduplicateRepeatedTraces() throws IOException {
+        FailureClusterer clusterer = new FailureClusterer(true);
+        ObjectNode feature = feature(trace("Order 1001 not found", 10), trace("Order 2002 not found", 11));
+
+        clusterer.transform(feature);
+
+        String signature = result(feature, 1).path("error_signature").asText();
+        assertThat(result(feature, 0).path("error_message").asText()).contains("at com.example.Steps.check");
+        assertThat(result(feature, 1).path("error_message").asText())
+                .startsWith("java.lang.AssertionError: Order 2002 not found")
+                .contains(signature)
+                .doesNotContain("at com.example.Steps.check");
+        assertThat(written(clusterer).get(0).path("representative").asText()).contains("at com.example.Steps.check");
+    }
+
+    @Test
+    @DisplayName("Should cluster failed hooks as well as steps")
+    void shouldClusterHooks() {
+        FailureClusterer clusterer = new FailureClusterer(false);
+        ObjectNode feature = feature(trace("Browser crashed", 5));
+        ObjectNode element = (ObjectNode) feature.path("elements").get(0);
+        element.putArray("after").add(step(trace("Browser crashed", 9)));
+
+        clusterer.transform(feature);
+
+        assertThat(clusterer.clusterCount()).isEqualTo(1);
+        assertThat(element.path("after").get(0).path("result").has("error_signature")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should not cluster pending or skipped steps")
+    void shouldIgnoreStepsThatDidNotFail() {
+        FailureClusterer clusterer = new FailureClusterer(false);
+        ObjectNode feature = feature(trace("TODO: implement me", 5), trace("Assumption not met", 7));
+        ((ObjectNode) result(feature, 0)).put("status", "pending");
+        ((ObjectNode) result(feature, 1)).put("status", "skipped");
+
+        clusterer.transform(feature);
+
+        assertThat(clusterer.clusterCount()).isZero();
+        assertThat(result(feature, 0).has("error_signature")).isFalse();
+        assertThat(result(feature, 1).has("error_signature")).isFalse();
+    }
+
+    private static String trace(String message, int line) {
+        return "java.lang.AssertionError: " + message + "\n"
+                + "\tat com.example.Steps.check(Steps.java:" + line + ")\n"
+                + "\tat ✽.the order is found(classpath:features/orders.feature:" + (line + 1) + ")\n"
+                + "\t... 12 more";
+    }
+
+    private ObjectNode feature(String... errors) {
+        ObjectNode feature = mapper.createObjectNode();
+        feature.put("uri", "classpath:features/orders.feature");
+        ArrayNode elements = feature.putArray("elements");
+        int line = 3;
+        for (String error : errors) {
+            ObjectNode element = elements.addObject();
+            element.put("name", "Scenario " + line);
+            element.put("line", line++);
+            element.putArray("steps").add(step(error));
+        }
+        return feature;
+    }
+
+    private ObjectNode step(String error) {
+        ObjectNode step = mapper.createObjectNode();
+        step.putObject("result").put("status", "failed").put("error_message", error);
+        return step;
+    }
+
+    private static JsonNode result(ObjectNode feature, int element) {
+        return feature.path("elements").get(element).path("steps").get(0).path("result");
+    }
+
+    private JsonNode written(FailureClusterer clusterer) throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+            clusterer.write(generator);
+        }
+        return mapper.readTree(out.toString());
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Lazy Temp File Output Stream Tests")
+class LazyTempFileOutputStreamTest {
+
+    private final LazyTempFileOutputStream stream = new LazyTempFileOutputStream();
+
+    @AfterEach
+    void deleteFile() throws IOException {
+        if (stream.isCreated()) {
+            Files.deleteIfExists(stream.file().toPath());
+        }
+    }
+
+    @Test
+    @DisplayName("Should create the file only on the first write")
+    void shouldCreateFileOnFirstWrite() throws IOException {
+        stream.flush();
+        assertThat(stream.isCreated()).isFalse();
+
+        stream.write("[]".getBytes(StandardCharsets.UTF_8));
+        stream.close();
+
+        assertThat(stream.isCreated()).isTrue();
+        assertThat(stream.file()).hasContent("[]");
+    }
+
+    @Test
+    @DisplayName("Should leave an empty file when closed without writing")
+    void shouldCreateEmptyFileOnClose() throws IOException {
+        stream.close();
+        stream.close();
+
+        File file = stream.file();
+        assertThat(file).exists().isEmpty();
+        assertThatThrownBy(() -> stream.write(1)).isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Locations Tests")
+class LocationsTest {
+
+    @Test
+    @DisplayName("Should relativize file URIs against the working directory like the JSON formatter")
+    void shouldRelativizeFileUris() {
+        URI absolute = new File("src/test/resources/features/login.feature").getAbsoluteFile().toURI();
+
+        assertThat(Locations.relativize(absolute).toString()).isEqualTo("file:src/test/resources/features/login.feature");
+    }
+
+    @Test
+    @DisplayName("Should leave classpath URIs untouched")
+    void shouldLeaveClasspathUrisUntouched() {
+        URI classpath = URI.create("classpath:features/login.feature");
+
+        assertThat(Locations.relativize(classpath)).isEqualTo(classpath);
+    }
+
+    @Test
+    @DisplayName("Should build uri:line keys")
+    void shouldBuildKeys() {
+        assertThat(Locations.key("classpath:features/login.feature", 12)).isEqualTo("classpath:features/login.feature:12");
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("NDJSON Feature Writer Tests")
+class NdjsonFeatureWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should write one feature per line")
+    void shouldWriteOneFeaturePerLine() throws IOException {
+        ObjectNode first = feature("features/orders.feature", "Orders\nwith a line break");
+        ObjectNode second = feature("features/payments.feature", "Payments");
+        try (NdjsonFeatureWriter writer = new NdjsonFeatureWriter(mapper, tempDir.toFile())) {
+            writer.transform(first);
+            writer.transform(second);
+            writer.commit();
+        }
+
+        List<String> lines = Files.readAllLines(tempDir.resolve(NdjsonFeatureWriter.FILE_NAME));
+        assertThat(lines).hasSize(2);
+        assertThat(mapper.readTree(lines.get(0))).isEqualTo(first);
+        assertThat(mapper.readTree(lines.get(1))).isEqualTo(second);
+        assertThat(tempDir.resolve(NdjsonFeatureWriter.FILE_NAME + ".tmp")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Should leave no file behind when not committed")
+    void shouldDropUncommittedFile() throws IOException {
+        try (NdjsonFeatureWriter writer = new NdjsonFeatureWriter(mapper, tempDir.toFile())) {
+            writer.transform(feature("features/orders.feature", "Orders"));
+        }
+
+        try (var files = Files.list(tempDir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    private ObjectNode feature(String uri, String name) {
+        ObjectNode feature = mapper.createObjectNode();
+        feature.put("uri", uri);
+        feature.put("name", name);
+        feature.putArray("elements").addObject().put("type", "scenario");
+        return feature;
+    }
+}
@@ -0,0 +1,134 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Outline Compactor Tests")
+class OutlineCompactorTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should keep only what differs from the first outline row")
+    void shouldCompactOutlineRows() {
+        ObjectNode feature = feature(row(2, 1, "passed", null), row(3, 2, "passed", null));
+
+        new OutlineCompactor().transform(feature);
+
+        JsonNode patch = feature.path("elements").get(1);
+        assertThat(patch.path(OutlineCompactor.TEMPLATE).asInt()).isZero();
+        assertThat(patch.path("id").asText()).isEqualTo("orders;order-items;;3");
+        assertThat(patch.has("keyword")).isFalse();
+        assertThat(patch.has("tags")).isFalse();
+        JsonNode step = patch.path("steps").get(0);
+        assertThat(step.path("name").asText()).isEqualTo("an order with 2 items");
+        assertThat(step.has("keyword")).isFalse();
+        assertThat(step.path("match").has("location")).isFalse();
+        assertThat(step.path("result").path("duration").asLong()).isEqualTo(2000);
+        assertThat(step.path("result").has("status")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should restore every row exactly when the patches are applied")
+    void shouldRoundTrip() {
+        ObjectNode original = feature(row(2, 1, "failed", "boom"), row(3, 2, "passed", null), row(4, 3, "skipped", null));
+        ObjectNode feature = original.deepCopy();
+
+        new OutlineCompactor().transform(feature);
+
+        ArrayNode elements = (ArrayNode) feature.path("elements");
+        assertThat(elements.get(1).path("steps").get(0).path("result").path(OutlineCompactor.REMOVED).get(0).asText())
+                .isEqualTo("error_message");
+        for (int i = 1; i < elements.size(); i++) {
+            JsonNode template = elements.get(elements.get(i).path(OutlineCompactor.TEMPLATE).asInt());
+            assertThat(apply(template, elements.get(i))).isEqualTo(original.path("elements").get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Should compact repeated backgrounds and leave plain scenarios alone")
+    void shouldCompactBackgrounds() {
+        ObjectNode feature = mapper.createObjectNode();
+        ArrayNode elements = feature.putArray("elements");
+        for (int line : new int[]{10, 20}) {
+            ObjectNode background = elements.addObject().put("type", "background").put("keyword", "Background").put("line", 3);
+            background.putArray("steps").add(step("a logged in user", 1000));
+            elements.addObject().put("id", "orders;scenario-" + line).put("type", "scenario").put("line", line);
+        }
+        OutlineCompactor compactor = new OutlineCompactor();
+
+        compactor.transform(feature);
+
+        assertThat(compactor.compactedCount()).isEqualTo(1);
+        assertThat(elements.get(2).path(OutlineCompactor.TEMPLATE).asInt()).isZero();
+        assertThat(elements.get(3).has(OutlineCompactor.TEMPLATE)).isFalse();
+    }
+
+    private ObjectNode feature(ObjectNode... rows) {
+        ObjectNode feature = mapper.createObjectNode();
+        feature.put("uri", "features/orders.feature");
+        ArrayNode elements = feature.putArray("elements");
+        for (ObjectNode row : rows) {
+            elements.add(row);
+        }
+        return feature;
+    }
+
+    private ObjectNode row(int index, int items, String status, String error) {
+        ObjectNode row = mapper.createObjectNode();
+        row.put("id", "orders;order-items;;" + index);
+        row.put("keyword", "Scenario Outline");
+        row.put("type", "scenario");
+        row.put("name", "Order items");
+        row.put("line", 10 + index);
+        row.putArray("tags").addObject().put("name", "@orders");
+        ObjectNode step = step("an order with " + items + " items", items * 1000L);
+        step.putObject("match").put("location", "Steps.order(int)").putArray("arguments").addObject().put("val", String.valueOf(items)).put("offset", 14);
+        ((ObjectNode) step.path("result")).put("status", status);
+        if (error != null) {
+            ((ObjectNode) step.path("result")).put("error_message", error);
+        }
+        row.putArray("steps").add(step);
+        return row;
+    }
+
+    private ObjectNode step(String name, long duration) {
+        ObjectNode step = mapper.createObjectNode();
+        step.put("keyword", "Given ");
+        step.put("line", 5);
+        step.put("name", name);
+        step.putObject("result").put("status", "passed").put("duration", duration);
+        return step;
+    }
+
+    /** Same rules as the frontend's {@code applyPatch}. */
+    static JsonNode apply(JsonNode template, JsonNode patch) {
+        if (template != null && template.isObject() && patch.isObject()) {
+            ObjectNode result = ((ObjectNode) template).deepCopy();
+            patch.path(OutlineCompactor.REMOVED).forEach(field -> result.remove(field.asText()));
+            for (Iterator<String> fields = patch.fieldNames(); fields.hasNext(); ) {
+                String field = fields.next();
+                if (!field.equals(OutlineCompactor.REMOVED) && !field.equals(OutlineCompactor.TEMPLATE)) {
+                    result.set(field, apply(template.get(field), patch.get(field)));
+                }
+            }
+            return result;
+        }
+        if (template != null && template.isArray() && patch.isArray() && template.size() == patch.size()) {
+            ArrayNode result = ((ArrayNode) patch).arrayNode();
+            for (int i = 0; i < patch.size(); i++) {
+                result.add(apply(template.get(i), patch.get(i)));
+            }
+            return result;
+        }
+        return patch;
+    }
+}
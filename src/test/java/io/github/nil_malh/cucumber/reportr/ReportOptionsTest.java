@@ -0,0 +1,62 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Report Options Tests")
+class ReportOptionsTest {
+
+    @Test
+    @DisplayName("Should leave every optional feature off by default")
+    void shouldDefaultToPlainReport() {
+        ReportOptions options = ReportOptions.defaults();
+
+        assertThat(options.isJfrEnabled()).isFalse();
+        assertThat(options.getQueueCapacity()).isEqualTo(1024);
+        assertThat(options.getMemoryBudget()).isEqualTo(64L * 1024 * 1024);
+    }
+
+    @Test
+    @DisplayName("Should read options from properties")
+    void shouldReadOptionsFromProperties() {
+        Properties properties = new Properties();
+        properties.setProperty(ReportOptions.JFR_ENABLED, "true");
+        properties.setProperty(ReportOptions.QUEUE_CAPACITY, "64");
+        properties.setProperty(ReportOptions.MEMORY_BUDGET, "256k");
+
+        ReportOptions options = ReportOptions.from(properties);
+
+        assertThat(options.isJfrEnabled()).isTrue();
+        assertThat(options.getQueueCapacity()).isEqualTo(64);
+        assertThat(options.getMemoryBudget()).isEqualTo(256L * 1024);
+    }
+
+    @Test
+    @DisplayName("Should fall back to defaults for invalid values")
+    void shouldFallBackToDefaultsForInvalidValues() {
+        Properties properties = new Properties();
+        properties.setProperty(ReportOptions.QUEUE_CAPACITY, "-1");
+        properties.setProperty(ReportOptions.MEMORY_BUDGET, "lots");
+
+        ReportOptions options = ReportOptions.from(properties);
+
+        assertThat(options.getQueueCapacity()).isEqualTo(1024);
+        assertThat(options.getMemoryBudget()).isEqualTo(64L * 1024 * 1024);
+    }
+
+    @Test
+    @DisplayName("Should enable clustering when deduplicating failures")
+    void shouldClusterWhenDeduplicating() {
+        Properties properties = new Properties();
+        properties.setProperty(ReportOptions.FAILURE_DEDUPLICATION, "true");
+
+        ReportOptions options = ReportOptions.from(properties);
+
+        assertThat(options.isFailureDeduplication()).isTrue();
+        assertThat(options.isFailureClustering()).isTrue();
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Result Record Writer Tests")
+class ResultRecordWriterTest {
+
+    private static final String TRACE = "java.lang.AssertionError: expected 200\n\tat steps.Orders.check(Orders.java:42)";
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should write a record per scenario followed by its background and steps")
+    void shouldFlattenScenariosAndSteps() throws IOException {
+        ObjectNode feature = mapper.createObjectNode();
+        feature.put("name", "Orders");
+        feature.put("uri", "features/orders.feature");
+        feature.putArray("tags").addObject().put("name", "@orders");
+        ObjectNode background = feature.putArray("elements").addObject();
+        background.put("type", "background");
+        background.put("line", 3);
+        step(background, 4, "passed", 10, null);
+        ObjectNode scenario = feature.withArray("elements").addObject();
+        scenario.put("type", "scenario");
+        scenario.put("id", "orders;checkout");
+        scenario.put("name", "Checkout");
+        scenario.put("line", 6);
+        scenario.putArray("tags").addObject().put("name", "@smoke");
+        step(scenario, 7, "failed", 20, TRACE);
+        step(scenario, 8, "skipped", 0, null);
+
+        List<JsonNode> records = write(feature);
+
+        assertThat(records).extracting(record -> record.path("type").asText()).containsExactly("scenario", "step", "step", "step");
+        JsonNode scenarioRecord = records.get(0);
+        assertThat(scenarioRecord.path("feature").asText()).isEqualTo("Orders");
+        assertThat(scenarioRecord.path("uri").asText()).isEqualTo("features/orders.feature");
+        assertThat(scenarioRecord.path("line").asInt()).isEqualTo(6);
+        assertThat(scenarioRecord.path("status").asText()).isEqualTo("failed");
+        assertThat(scenarioRecord.path("duration").asLong()).isEqualTo(30);
+        assertThat(scenarioRecord.path("error_signature").asText()).isEqualTo(FailureClusterer.signature(TRACE));
+        assertThat(scenarioRecord.path("tags")).extracting(JsonNode::asText).containsExactly("@orders", "@smoke");
+        assertThat(records).extracting(record -> record.path("line").asInt()).containsExactly(6, 4, 7, 8);
+        assertThat(records.get(1).path("scenario").asText()).isEqualTo("Checkout");
+        assertThat(records.get(1).path("keyword").asText()).isEqualTo("Given");
+        assertThat(records.get(2).path("error_signature").asText()).isEqualTo(FailureClusterer.signature(TRACE));
+        assertThat(records.get(3).has("error_signature")).isFalse();
+        assertThat(records.get(2).has("error_message")).isFalse();
+    }
+
+    private void step(ObjectNode element, int line, String status, long duration, String error) {
+        ObjectNode step = element.withArray("steps").addObject();
+        step.put("keyword", "Given ");
+        step.put("name", "step " + line);
+        step.put("line", line);
+        step.putObject("match").put("location", "steps.Orders.step()");
+        ObjectNode result = step.putObject("result");
+        result.put("status", status);
+        result.put("duration", duration);
+        if (error != null) {
+            result.put("error_message", error);
+        }
+    }
+
+    private List<JsonNode> write(ObjectNode feature) throws IOException {
+        try (ResultRecordWriter writer = new ResultRecordWriter(mapper, tempDir.toFile())) {
+            writer.transform(feature);
+            writer.commit();
+        }
+        List<JsonNode> records = new ArrayList<>();
+        for (String line : Files.readAllLines(tempDir.resolve(ResultRecordWriter.FILE_NAME))) {
+            records.add(mapper.readTree(line));
+        }
+        return records;
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Result;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.Step;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Scenario Profiler Tests")
+class ScenarioProfilerTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T10:00:00Z");
+
+    @Test
+    @DisplayName("Should measure a profile for the executing thread")
+    void shouldMeasureProfile() {
+        Step step = mock(Step.class);
+        when(step.getKeyword()).thenReturn("Given ");
+        when(step.getText()).thenReturn("I am on the login page");
+        PickleStepTestStep testStep = mock(PickleStepTestStep.class);
+        when(testStep.getStep()).thenReturn(step);
+        when(testStep.getCodeLocation()).thenReturn("LoginSteps.onLoginPage()");
+        Result passed = new Result(Status.PASSED, Duration.ofMillis(5), null);
+
+        ScenarioProfiler.Sample sample = new ScenarioProfiler().start("classpath:features/login.feature", 7, "Successful login", START);
+        sample.stepStarted(testStep);
+        byte[][] garbage = new byte[64][];
+        for (int i = 0; i < garbage.length; i++) {
+            garbage[i] = new byte[1024];
+        }
+        sample.stepFinished(passed);
+        ScenarioProfile profile = sample.finish(passed, START.plusMillis(42));
+
+        assertThat(garbage.length).isEqualTo(64);
+        assertThat(profile.duration()).isEqualTo(Duration.ofMillis(42).toNanos());
+        assertThat(profile.thread()).isEqualTo(Thread.currentThread().getName());
+        assertThat(profile.gcCount()).isGreaterThanOrEqualTo(0);
+        assertThat(profile.gcTime()).isGreaterThanOrEqualTo(0);
+        assertThat(profile.allocatedBytes()).satisfiesAnyOf(
+                allocated -> assertThat(allocated).isEqualTo(-1),
+                allocated -> assertThat(allocated).isGreaterThanOrEqualTo(64 * 1024));
+    }
+
+    @Test
+    @DisplayName("Should tolerate a step finishing without having started")
+    void shouldTolerateUnmatchedStepFinished() {
+        ScenarioProfiler.Sample sample = new ScenarioProfiler().start("classpath:features/login.feature", 7, "Successful login", START);
+
+        sample.stepFinished(new Result(Status.FAILED, Duration.ZERO, new AssertionError("boom")));
+
+        assertThat(sample.finish(new Result(Status.FAILED, Duration.ZERO, null), START).duration()).isZero();
+    }
+}
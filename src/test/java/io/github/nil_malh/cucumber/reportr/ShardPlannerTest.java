@@ -0,0 +1,54 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Shard Planner Tests")
+class ShardPlannerTest {
+
+    @Test
+    @DisplayName("Should order scenarios longest first")
+    void shouldOrderLongestFirst() {
+        assertThat(ShardPlanner.longestFirst(durations(3, 9, 1, 9))).containsExactly("a.feature:2", "a.feature:4", "a.feature:1", "a.feature:3");
+    }
+
+    @Test
+    @DisplayName("Should balance shards by duration")
+    void shouldBalanceShards() {
+        List<ShardPlanner.Shard> shards = ShardPlanner.plan(durations(8, 7, 6, 5, 4, 3, 2, 1), 3);
+
+        assertThat(shards).extracting(ShardPlanner.Shard::duration).containsExactly(13L, 12L, 11L);
+        assertThat(shards.get(0).scenarios()).containsExactly("a.feature:1", "a.feature:6", "a.feature:7");
+        assertThat(shards).flatExtracting(ShardPlanner.Shard::scenarios).hasSize(8).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("Should leave extra workers empty")
+    void shouldLeaveExtraWorkersEmpty() {
+        List<ShardPlanner.Shard> shards = ShardPlanner.plan(durations(5), 3);
+
+        assertThat(shards).hasSize(3);
+        assertThat(shards.get(1).scenarios()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject fewer than one worker")
+    void shouldRejectNoWorkers() {
+        assertThatThrownBy(() -> ShardPlanner.plan(durations(1), 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Map<String, Long> durations(long... values) {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            durations.put("a.feature:" + (i + 1), values[i]);
+        }
+        return durations;
+    }
+}
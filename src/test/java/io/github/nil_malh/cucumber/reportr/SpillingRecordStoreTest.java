@@ -0,0 +1,87 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Spilling Record Store Tests")
+class SpillingRecordStoreTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T10:00:00.123456789Z");
+
+    @Test
+    @DisplayName("Should keep records in memory while within budget")
+    void shouldKeepRecordsInMemoryWithinBudget() throws IOException {
+        try (SpillingRecordStore store = new SpillingRecordStore(64L * 1024 * 1024)) {
+            store.add(record("features/b.feature", 3, null));
+            store.add(record("features/a.feature", 9, null));
+
+            assertThat(store.spilledRuns()).isZero();
+            assertThat(keys(store)).containsExactly("features/a.feature:9", "features/b.feature:3");
+        }
+    }
+
+    @Test
+    @DisplayName("Should spill sorted runs and merge them back in feature order")
+    void shouldSpillAndMergeInFeatureOrder() throws IOException {
+        List<TestCaseRecord> expected = new ArrayList<>();
+        for (int feature = 0; feature < 20; feature++) {
+            for (int line = 1; line <= 50; line++) {
+                expected.add(record("features/f" + (char) ('a' + feature) + ".feature", line,
+                        new ScenarioProfile("worker-" + line, line, 1, 2, 3)));
+            }
+        }
+        List<TestCaseRecord> shuffled = new ArrayList<>(expected);
+        Collections.shuffle(shuffled, new Random(42));
+
+        try (SpillingRecordStore store = new SpillingRecordStore(16 * 1024)) {
+            shuffled.forEach(store::add);
+
+            List<TestCaseRecord> actual = new ArrayList<>();
+            store.forEachInFeatureOrder(actual::add);
+
+            assertThat(store.spilledRuns()).isGreaterThan(1);
+            assertThat(store.size()).isEqualTo(expected.size());
+            assertThat(actual).containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("Should round-trip records through the spill encoding unchanged")
+    void shouldRoundTripRecords() throws IOException {
+        TestCaseRecord original = new TestCaseRecord("classpath:features/ünïcödé.feature", 12, null, "failed",
+                START, START.plusSeconds(2), "worker-1",
+                List.of(new TestCaseRecord.StepRecord("Given a step", "Steps.step()", "failed", 1_500_000)),
+                null);
+
+        try (SpillingRecordStore store = new SpillingRecordStore(0)) {
+            store.add(original);
+
+            List<TestCaseRecord> actual = new ArrayList<>();
+            store.forEachInFeatureOrder(actual::add);
+
+            assertThat(store.spilledRuns()).isEqualTo(1);
+            assertThat(actual).containsExactly(original);
+        }
+    }
+
+    private static List<String> keys(SpillingRecordStore store) throws IOException {
+        List<String> keys = new ArrayList<>();
+        store.forEachInFeatureOrder(record -> keys.add(record.key()));
+        return keys;
+    }
+
+    private static TestCaseRecord record(String uri, int line, ScenarioProfile profile) {
+        return new TestCaseRecord(uri, line, "Scenario " + line, "passed", START.plusMillis(line), START.plusMillis(line + 5),
+                "worker-1", List.of(new TestCaseRecord.StepRecord("Given a step", "Steps.step()", "passed", 5_000_000)),
+                profile);
+    }
+}
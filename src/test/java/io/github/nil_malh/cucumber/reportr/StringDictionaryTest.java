@@ -0,0 +1,100 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("String Dictionary Tests")
+class StringDictionaryTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should replace repeated strings with indices into one table")
+    void shouldInternRepeatedStrings() throws IOException {
+        StringDictionary dictionary = new StringDictionary();
+        ObjectNode first = feature("features/orders.feature");
+        ObjectNode second = feature("features/payments.feature");
+
+        dictionary.transform(first);
+        dictionary.transform(second);
+
+        JsonNode strings = written(dictionary);
+        JsonNode step = second.path("elements").get(0).path("steps").get(0);
+        assertThat(step.path("keyword").isInt()).isTrue();
+        assertThat(strings.get(step.path("keyword").asInt()).asText()).isEqualTo("Given ");
+        assertThat(strings.get(step.path("match").path("location").asInt()).asText()).isEqualTo("Steps.order(int)");
+        assertThat(strings.get(step.path("result").path("status").asInt()).asText()).isEqualTo("passed");
+        assertThat(strings.get(first.path("tags").get(0).path("name").asInt()).asText()).isEqualTo("@smoke");
+        assertThat(first.path("elements").get(0).path("tags").get(0).path("name")).isEqualTo(first.path("tags").get(0).path("name"));
+        assertThat(dictionary.size()).isEqualTo(strings.size()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should leave strings that occur only once inline")
+    void shouldKeepSingleOccurrencesInline() throws IOException {
+        StringDictionary dictionary = new StringDictionary();
+        ObjectNode first = feature("features/orders.feature");
+        ObjectNode second = feature("features/payments.feature");
+
+        dictionary.transform(first);
+        dictionary.transform(second);
+
+        assertThat(first.path("uri").asText()).isEqualTo("features/orders.feature");
+        assertThat(second.path("uri").asText()).isEqualTo("features/payments.feature");
+        assertThat(first.path("elements").get(0).path("steps").get(0).path("keyword").asText()).isEqualTo("Given ");
+        assertThat(written(dictionary)).noneMatch(string -> string.asText().startsWith("features/"));
+    }
+
+    @Test
+    @DisplayName("Should leave ids, descriptions and error messages inline")
+    void shouldKeepOtherFieldsInline() {
+        ObjectNode feature = feature("features/orders.feature");
+
+        new StringDictionary().transform(feature);
+
+        JsonNode element = feature.path("elements").get(0);
+        assertThat(feature.path("name").asText()).isEqualTo("Orders");
+        assertThat(element.path("id").asText()).isEqualTo("orders;order-items;;2");
+        assertThat(element.path("steps").get(0).path("result").path("error_message").isMissingNode()).isTrue();
+        assertThat(element.path("line").asInt()).isEqualTo(12);
+    }
+
+    private ObjectNode feature(String uri) {
+        ObjectNode feature = mapper.createObjectNode();
+        feature.put("uri", uri);
+        feature.put("keyword", "Feature");
+        feature.put("name", "Orders");
+        feature.putArray("tags").addObject().put("name", "@smoke");
+        ObjectNode element = feature.putArray("elements").addObject();
+        element.put("id", "orders;order-items;;2");
+        element.put("keyword", "Scenario Outline");
+        element.put("type", "scenario");
+        element.put("name", "Order items");
+        element.put("line", 12);
+        element.putArray("tags").addObject().put("name", "@smoke");
+        element.putArray("before").addObject().putObject("match").put("location", "Hooks.open()");
+        ObjectNode step = element.putArray("steps").addObject();
+        step.put("keyword", "Given ");
+        step.put("name", "an order with 2 items");
+        step.putObject("match").put("location", "Steps.order(int)");
+        step.putObject("result").put("status", "passed").put("duration", 1000);
+        return feature;
+    }
+
+    private JsonNode written(StringDictionary dictionary) throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+            dictionary.write(generator);
+        }
+        return mapper.readTree(out.toString());
+    }
+}
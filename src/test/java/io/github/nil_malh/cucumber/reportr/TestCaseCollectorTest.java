@@ -0,0 +1,184 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.HookType;
+import io.cucumber.plugin.event.Location;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Result;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.Step;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestStep;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.TestStepStarted;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Test Case Collector Tests")
+class TestCaseCollectorTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T10:00:00Z");
+    private static final Result PASSED = new Result(Status.PASSED, Duration.ofMillis(3), null);
+
+    @Test
+    @DisplayName("Should register handlers for test case and step events")
+    void shouldRegisterHandlers() {
+        EventPublisher publisher = mock(EventPublisher.class);
+        TestCaseCollector collector = new TestCaseCollector(16, null, record -> { });
+
+        collector.setEventPublisher(publisher);
+        collector.close();
+
+        verify(publisher).registerHandlerFor(eq(TestCaseStarted.class), any());
+        verify(publisher).registerHandlerFor(eq(TestStepStarted.class), any());
+        verify(publisher).registerHandlerFor(eq(TestStepFinished.class), any());
+        verify(publisher).registerHandlerFor(eq(TestCaseFinished.class), any());
+    }
+
+    @Test
+    @DisplayName("Should hand a complete record to the sink on the writer thread")
+    void shouldHandRecordToSinksOnWriterThread() {
+        List<TestCaseRecord> records = new ArrayList<>();
+        List<String> sinkThreads = new ArrayList<>();
+        TestCaseCollector collector = new TestCaseCollector(16, new ScenarioProfiler(), record -> {
+            records.add(record);
+            sinkThreads.add(Thread.currentThread().getName());
+        });
+        collector.setEventPublisher(mock(EventPublisher.class));
+        TestCase testCase = testCase("classpath:features/login.feature", 7);
+        TestStep hook = hook();
+        TestStep step = step("Given ", "I am on the login page");
+
+        collector.onTestCaseStarted(new TestCaseStarted(START, testCase));
+        collector.onTestStepStarted(new TestStepStarted(START, testCase, hook));
+        collector.onTestStepFinished(new TestStepFinished(START, testCase, hook, PASSED));
+        collector.onTestStepStarted(new TestStepStarted(START, testCase, step));
+        collector.onTestStepFinished(new TestStepFinished(START, testCase, step, PASSED));
+        collector.onTestCaseFinished(new TestCaseFinished(START.plusMillis(10), testCase, PASSED));
+        collector.close();
+
+        assertThat(records).hasSize(1);
+        TestCaseRecord record = records.get(0);
+        assertThat(record.key()).isEqualTo("classpath:features/login.feature:7");
+        assertThat(record.status()).isEqualTo("passed");
+        assertThat(record.duration()).isEqualTo(Duration.ofMillis(10).toNanos());
+        assertThat(record.thread()).isEqualTo(Thread.currentThread().getName());
+        assertThat(record.steps()).extracting(TestCaseRecord.StepRecord::text)
+                .containsExactly("before", "Given I am on the login page");
+        assertThat(record.profile()).isNotNull();
+        assertThat(sinkThreads).containsExactly("cucumber-reportr-writer");
+    }
+
+    @Test
+    @DisplayName("Should deliver every test case exactly once under parallel execution")
+    void shouldDeliverEveryTestCaseUnderParallelExecution() throws Exception {
+        int threads = 64;
+        int testCasesPerThread = 50;
+        // The sink runs on the single writer thread, so a plain collection is safe here
+        List<String> keys = new ArrayList<>();
+        TestCaseCollector collector = new TestCaseCollector(8, null, record -> keys.add(record.key()));
+        collector.setEventPublisher(mock(EventPublisher.class));
+        TestStep step = step("When ", "I do something");
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int worker = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < testCasesPerThread; i++) {
+                    TestCase testCase = testCase("classpath:features/worker-" + worker + ".feature", i + 1);
+                    collector.onTestCaseStarted(new TestCaseStarted(START, testCase));
+                    collector.onTestStepStarted(new TestStepStarted(START, testCase, step));
+                    collector.onTestStepFinished(new TestStepFinished(START, testCase, step, PASSED));
+                    collector.onTestCaseFinished(new TestCaseFinished(START, testCase, PASSED));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        collector.close();
+
+        Set<String> unique = new HashSet<>(keys);
+        assertThat(keys).hasSize(threads * testCasesPerThread);
+        assertThat(unique).hasSize(threads * testCasesPerThread);
+    }
+
+    @Test
+    @DisplayName("Should keep writing after a sink fails")
+    void shouldKeepWritingAfterSinkFailure() {
+        List<TestCaseRecord> records = new ArrayList<>();
+        TestCaseCollector collector = new TestCaseCollector(16, null, record -> {
+            if (record.line() == 7) {
+                throw new IllegalStateException("disk full");
+            }
+            records.add(record);
+        });
+        collector.setEventPublisher(mock(EventPublisher.class));
+        TestCase failing = testCase("classpath:features/login.feature", 7);
+        TestCase next = testCase("classpath:features/login.feature", 12);
+
+        collector.onTestCaseStarted(new TestCaseStarted(START, failing));
+        collector.onTestCaseFinished(new TestCaseFinished(START, failing, PASSED));
+        collector.onTestCaseStarted(new TestCaseStarted(START, next));
+        collector.onTestCaseFinished(new TestCaseFinished(START, next, PASSED));
+        collector.close();
+
+        assertThat(records).extracting(TestCaseRecord::line).containsExactly(12);
+    }
+
+    private static TestCase testCase(String uri, int line) {
+        TestCase testCase = mock(TestCase.class);
+        when(testCase.getId()).thenReturn(UUID.randomUUID());
+        when(testCase.getUri()).thenReturn(URI.create(uri));
+        when(testCase.getLocation()).thenReturn(new Location(line, 3));
+        when(testCase.getName()).thenReturn("Scenario " + line);
+        return testCase;
+    }
+
+    private static TestStep step(String keyword, String text) {
+        Step step = mock(Step.class);
+        when(step.getKeyword()).thenReturn(keyword);
+        when(step.getText()).thenReturn(text);
+        PickleStepTestStep testStep = mock(PickleStepTestStep.class);
+        when(testStep.getStep()).thenReturn(step);
+        when(testStep.getCodeLocation()).thenReturn("Steps.step()");
+        return testStep;
+    }
+
+    private static TestStep hook() {
+        HookTestStep hook = mock(HookTestStep.class);
+        when(hook.getHookType()).thenReturn(HookType.BEFORE);
+        when(hook.getCodeLocation()).thenReturn("Hooks.before()");
+        return hook;
+    }
+}
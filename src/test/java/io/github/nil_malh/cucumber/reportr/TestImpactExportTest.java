@@ -0,0 +1,93 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Test Impact Export Tests")
+class TestImpactExportTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should list failed and flaky scenarios for a rerun")
+    void shouldWriteRerunList() throws IOException {
+        TestImpactExport export = new TestImpactExport(true, 0, null);
+        export.transform(feature(scenario(3, "passed", 10), scenario(7, "failed", 10), scenario(11, "failed", 10)));
+        // Rerun results merged into the same input: line 11 passed the second time
+        export.transform(feature(scenario(11, "passed", 10)));
+
+        export.writeTo(mapper, tempDir.toFile());
+
+        assertThat(Files.readAllLines(tempDir.resolve(TestImpactExport.RERUN_FILE)))
+                .containsExactly("features/orders.feature:7", "features/orders.feature:11");
+        assertThat(tempDir.resolve(TestImpactExport.SHARDS_FILE)).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Should spread scenarios over the workers by duration")
+    void shouldWriteShardPlan() throws IOException {
+        TestImpactExport export = new TestImpactExport(false, 2, null);
+        export.transform(feature(scenario(3, "passed", 300), scenario(7, "passed", 200), scenario(11, "failed", 100)));
+
+        export.writeTo(mapper, tempDir.toFile());
+
+        JsonNode plan = mapper.readTree(tempDir.resolve(TestImpactExport.SHARDS_FILE).toFile());
+        assertThat(plan.path("workers").asInt()).isEqualTo(2);
+        assertThat(plan.path("shards").get(0).path("duration").asLong()).isEqualTo(300);
+        assertThat(plan.path("shards").get(1).path("duration").asLong()).isEqualTo(300);
+        File second = tempDir.resolve(plan.path("shards").get(1).path("file").asText()).toFile();
+        assertThat(Files.readAllLines(second.toPath())).containsExactly("features/orders.feature:7", "features/orders.feature:11");
+        assertThat(tempDir.resolve(TestImpactExport.RERUN_FILE)).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Should remove shard files left by a run with more workers")
+    void shouldRemoveStaleShardFiles() throws IOException {
+        ObjectNode feature = feature(scenario(3, "passed", 300), scenario(7, "passed", 200), scenario(11, "passed", 100));
+        TestImpactExport previous = new TestImpactExport(false, 3, null);
+        previous.transform(feature);
+        previous.writeTo(mapper, tempDir.toFile());
+        TestImpactExport current = new TestImpactExport(false, 2, null);
+        current.transform(feature);
+
+        current.writeTo(mapper, tempDir.toFile());
+
+        assertThat(tempDir.resolve(TestImpactExport.shardFile(0))).exists();
+        assertThat(tempDir.resolve(TestImpactExport.shardFile(1))).exists();
+        assertThat(tempDir.resolve(TestImpactExport.shardFile(2))).doesNotExist();
+    }
+
+    private ObjectNode feature(ObjectNode... scenarios) {
+        ObjectNode feature = mapper.createObjectNode();
+        feature.put("uri", "features/orders.feature");
+        ArrayNode elements = feature.putArray("elements");
+        for (ObjectNode scenario : scenarios) {
+            elements.add(scenario);
+        }
+        return feature;
+    }
+
+    private ObjectNode scenario(int line, String status, long duration) {
+        ObjectNode scenario = mapper.createObjectNode();
+        scenario.put("id", "orders;scenario-" + line);
+        scenario.put("type", "scenario");
+        scenario.put("line", line);
+        scenario.putArray("steps").addObject().putObject("result").put("status", status).put("duration", duration);
+        return scenario;
+    }
+}
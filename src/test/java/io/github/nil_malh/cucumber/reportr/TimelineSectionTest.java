@@ -0,0 +1,64 @@
+package io.github.nil_malh.cucumber.reportr;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Timeline Section Tests")
+class TimelineSectionTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T10:00:00.000Z");
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should write bars relative to the first start with thread indices")
+    void shouldWriteBars() throws IOException {
+        try (SpillingRecordStore store = new SpillingRecordStore(64L * 1024 * 1024)) {
+            store.add(record("features/a.feature", 3, "worker-2", 1_500, 4_000));
+            store.add(record("features/a.feature", 9, "worker-1", 0, 2_000));
+            store.add(record("features/b.feature", 4, "worker-2", 4_000, 4_250));
+
+            JsonNode timeline = written(new TimelineSection(store));
+
+            assertThat(timeline.path("origin").asLong()).isEqualTo(START.toEpochMilli());
+            assertThat(timeline.path("threads")).extracting(JsonNode::asText).containsExactly("worker-2", "worker-1");
+            assertThat(timeline.path("bars")).hasSize(3);
+            assertThat(timeline.path("bars").get(0).toString()).isEqualTo("[1500,4000,0,\"passed\",\"features/a.feature:3\"]");
+            assertThat(timeline.path("bars").get(1).toString()).isEqualTo("[0,2000,1,\"passed\",\"features/a.feature:9\"]");
+        }
+    }
+
+    @Test
+    @DisplayName("Should write an empty timeline when no test case ran")
+    void shouldWriteEmptyTimeline() throws IOException {
+        try (SpillingRecordStore store = new SpillingRecordStore(1024)) {
+            JsonNode timeline = written(new TimelineSection(store));
+
+            assertThat(timeline.path("threads")).isEmpty();
+            assertThat(timeline.path("bars")).isEmpty();
+        }
+    }
+
+    private static TestCaseRecord record(String uri, int line, String thread, long startMicros, long endMicros) {
+        return new TestCaseRecord(uri, line, "Scenario " + line, "passed",
+                START.plusNanos(startMicros * 1_000), START.plusNanos(endMicros * 1_000), thread, List.of(), null);
+    }
+
+    private JsonNode written(ReportSection section) throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+            section.write(generator);
+        }
+        return mapper.readTree(out.toString());
+    }
+}